@@ -0,0 +1,205 @@
+package com.example.security.batch;
+
+import com.example.security.lock.AccountWriteSequencer;
+import com.example.security.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for balance updates: deposits and withdrawals arriving within 'account.group-commit.window-ms' (or
+ * until 'account.group-commit.max-batch-size' is reached) are applied by a single dispatcher thread in one database
+ * transaction, so that many requests share one commit (and one fsync).
+ * Every statement still returns its own result to its caller. If the batch transaction fails, its writes are retried
+ * one transaction each so that only the failing request gets the error. Within a batch the writes are ordered by
+ * account number (keeping arrival order per account), so that concurrent batches lock rows in the same order.
+ * A full queue falls back to a transaction of its own for the caller, taken under the AccountWriteSequencer permit of
+ * the account like any other write outside the group commit.
+ * The single dispatcher thread also sequences writes per account, so AccountWriteSequencer is not used for batches.
+ * Commits and requests are counted as 'account.group-commit.commits' and 'account.group-commit.requests'.
+ */
+@Component
+public class AccountGroupCommitter implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountGroupCommitter.class);
+
+    private final AccountRepository accountRepository;
+
+    private final AccountWriteSequencer accountWriteSequencer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final BlockingQueue<PendingWrite> queue;
+
+    private final Counter commits;
+
+    private final Counter requests;
+
+    private final DistributionSummary batchSize;
+
+    private final Thread dispatcher;
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public AccountGroupCommitter(AccountRepository accountRepository,
+                                 AccountWriteSequencer accountWriteSequencer,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${account.group-commit.enabled:false}") boolean enabled,
+                                 @Value("${account.group-commit.window-ms:2}") long windowMillis,
+                                 @Value("${account.group-commit.max-batch-size:64}") int maxBatchSize,
+                                 @Value("${account.group-commit.queue-capacity:4096}") int queueCapacity) {
+        this.accountRepository = accountRepository;
+        this.accountWriteSequencer = accountWriteSequencer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.commits = Counter.builder("account.group-commit.commits").register(meterRegistry);
+        this.requests = Counter.builder("account.group-commit.requests").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("account.group-commit.batch.size").register(meterRegistry);
+        if (enabled) {
+            this.dispatcher = new Thread(this::dispatch, "account-group-commit");
+            this.dispatcher.setDaemon(true);
+            this.dispatcher.start();
+        } else {
+            this.dispatcher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Adds 'amount' to the balance of the account and appends the ledger event, as part of the next group commit.
+     * Blocks until the batch has been committed.
+     *
+     * @param accNo     - Long - account number
+     * @param amount    - long - signed amount added to the balance
+     * @param eventType - String - type of the ledger event
+     * @param modifiedBy - String - service account
+     * @return Long - new balance, null if the account does not exist or the balance would become negative
+     */
+    public Long addToBalance(Long accNo, long amount, String eventType, String modifiedBy) {
+        PendingWrite write = new PendingWrite(accNo, amount, eventType, modifiedBy, new CompletableFuture<>());
+        if (!this.running || !this.queue.offer(write)) {
+            try (AccountWriteSequencer.Permit permit = this.accountWriteSequencer.acquire(accNo)) {
+                Long newBalance = this.transactionTemplate.execute(status -> apply(write));
+                countCommit(1);
+                return newBalance;
+            }
+        }
+        try {
+            return write.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        this.running = false;
+        if (this.dispatcher != null) {
+            this.dispatcher.interrupt();
+            this.dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        /* writes still queued after the dispatcher has stopped */
+        List<PendingWrite> remaining = new ArrayList<>();
+        this.queue.drainTo(remaining);
+        remaining.forEach(this::applyAlone);
+    }
+
+    private void dispatch() {
+        List<PendingWrite> batch = new ArrayList<>(this.maxBatchSize);
+        while (this.running) {
+            try {
+                batch.add(this.queue.take());
+                long deadline = System.nanoTime() + this.windowNanos;
+                while (batch.size() < this.maxBatchSize) {
+                    PendingWrite next = this.queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        batch.sort(Comparator.comparing(PendingWrite::accNo));
+        List<Long> results = new ArrayList<>(batch.size());
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> batch.forEach(write -> results.add(apply(write))));
+        } catch (RuntimeException e) {
+            LOG.warn("Group commit of {} writes failed, retrying them one by one", batch.size(), e);
+            batch.forEach(this::applyAlone);
+            return;
+        }
+        countCommit(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(results.get(i));
+        }
+    }
+
+    private void applyAlone(PendingWrite write) {
+        try {
+            write.result().complete(this.transactionTemplate.execute(status -> apply(write)));
+            countCommit(1);
+        } catch (RuntimeException e) {
+            write.result().completeExceptionally(e);
+        }
+    }
+
+    private Long apply(PendingWrite write) {
+        return this.accountRepository.addToBalance(write.accNo(), write.amount(), write.eventType(),
+                LocalDateTime.now(), write.modifiedBy(), new Date());
+    }
+
+    private void countCommit(int writes) {
+        this.commits.increment();
+        this.requests.increment(writes);
+        this.batchSize.record(writes);
+    }
+
+    private record PendingWrite(Long accNo, long amount, String eventType, String modifiedBy,
+                                CompletableFuture<Long> result) {
+    }
+}
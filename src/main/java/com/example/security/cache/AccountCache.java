@@ -0,0 +1,87 @@
+package com.example.security.cache;
+
+import com.example.security.event.AccountChangedEvent;
+import com.example.security.model.Account;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Size- and TTL-bounded read-through cache of Account responses keyed by account number.
+ * Entries are invalidated by AccountChangedEvent once the publishing transaction has committed; changes made by the
+ * reactive variant arrive as AccountChangedEvent through AccountChangeNotificationListener, the TTL
+ * 'account.cache.ttl-seconds' bounds the staleness of changes made by other servlet instances (which do not notify).
+ * Unknown accounts are not cached.
+ * Like UserCache, misses are loaded on the calling thread outside of any cache lock. The cache can be switched off
+ * with 'account.cache.enabled'.
+ */
+@Component
+public class AccountCache {
+
+    private final boolean enabled;
+
+    private final AsyncCache<Long, Account> cache;
+
+    @Autowired
+    public AccountCache(@Value("${account.cache.enabled:true}") boolean enabled,
+                        @Value("${account.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${account.cache.ttl-seconds:30}") long ttlSeconds,
+                        MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "accountCache");
+    }
+
+    /**
+     * @param accountNumber - Long - account number
+     * @param loader        - Function - loads the account on a miss, returns null for an unknown account
+     * @return Account - account or null if there is no such account
+     */
+    public Account get(Long accountNumber, Function<Long, Account> loader) {
+        if (!this.enabled) {
+            return loader.apply(accountNumber);
+        }
+        CompletableFuture<Account> loading = new CompletableFuture<>();
+        CompletableFuture<Account> cached = this.cache.get(accountNumber, (key, executor) -> loading);
+        if (cached != loading) {
+            return cached.join();
+        }
+        try {
+            Account account = loader.apply(accountNumber);
+            loading.complete(account);
+            if (account == null) {
+                this.cache.asMap().remove(accountNumber, loading);
+            }
+            return account;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(Long accountNumber) {
+        this.cache.synchronous().invalidate(accountNumber);
+    }
+
+    public void invalidateAll() {
+        this.cache.synchronous().invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        invalidate(event.accountNumber());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.security.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * JwtDecoder which remembers already verified tokens, so that a client presenting the same bearer token again does not
+ * pay for parsing and signature verification a second time.
+ * Entries are keyed by the SHA-256 digest of the token and are evicted when the token expires ('exp' claim).
+ * Checks whose outcome can change during the lifetime of a token (e.g. revocation) are passed as validator and run on
+ * every decode, cached or not.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    /**
+     * Upper bound for tokens without an 'exp' claim.
+     */
+    private static final Duration MAX_TTL = Duration.ofHours(1);
+
+    /**
+     * Cloned per digest rather than held in a ThreadLocal, which would allocate one instance per (virtual) thread.
+     */
+    private static final MessageDigest SHA_256;
+
+    static {
+        try {
+            SHA_256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final JwtDecoder delegate;
+
+    private final OAuth2TokenValidator<Jwt> validator;
+
+    private final Cache<String, Jwt> cache;
+
+    /**
+     * @param delegate    - JwtDecoder - decoder which parses and verifies the token on a cache miss
+     * @param maximumSize - long - maximum number of verified tokens to keep
+     * @param validator   - OAuth2TokenValidator - validator run on every decode
+     */
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, OAuth2TokenValidator<Jwt> validator) {
+        this.delegate = delegate;
+        this.validator = validator;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                        return timeToLive(jwt);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return timeToLive(jwt);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = digest(token);
+        Jwt jwt = this.cache.getIfPresent(key);
+        if (jwt == null) {
+            jwt = this.delegate.decode(token);
+            this.cache.put(key, jwt);
+        }
+        OAuth2TokenValidatorResult result = this.validator.validate(jwt);
+        if (result.hasErrors()) {
+            throw new JwtValidationException(result.getErrors().iterator().next().getDescription(), result.getErrors());
+        }
+        return jwt;
+    }
+
+    /**
+     * Registers hit, miss and eviction counters of the cache under the given name.
+     *
+     * @param registry  - MeterRegistry
+     * @param cacheName - String - value of the 'cache' tag
+     */
+    public void bindTo(MeterRegistry registry, String cacheName) {
+        CaffeineCacheMetrics.monitor(registry, this.cache, cacheName);
+    }
+
+    /**
+     * @return CacheStats - hit, miss and eviction counts of the cache
+     */
+    public CacheStats stats() {
+        return this.cache.stats();
+    }
+
+    private static long timeToLive(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return MAX_TTL.toNanos();
+        }
+        long remaining = Duration.between(Instant.now(), expiresAt).toNanos();
+        return Math.max(0L, remaining);
+    }
+
+    private static String digest(String token) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = (MessageDigest) SHA_256.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.security.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.example.security.event.UserDeletedEvent;
+import com.example.security.event.UserRegisteredEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Short-lived cache of successful Basic-auth credential checks, so that repeated token requests of the same client do
+ * not run BCrypt every time.
+ * An entry holds the username, an HMAC-SHA256 of the verified password and the resulting Authentication. The HMAC key
+ * is generated randomly on startup and never leaves the JVM, the plain text password is never stored.
+ * Entries are invalidated by UserRegisteredEvent and UserDeletedEvent.
+ */
+@Component
+public class CredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+
+    private final Cache<String, VerifiedCredential> cache;
+
+    private final SecretKeySpec hmacKey;
+
+    @Autowired
+    public CredentialCache(@Value("${auth.credential-cache.enabled:false}") boolean enabled,
+                           @Value("${auth.credential-cache.ttl-seconds:60}") long ttlSeconds,
+                           @Value("${auth.credential-cache.maximum-size:10000}") long maximumSize,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.hmacKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "credentialCache");
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Returns the Authentication of an earlier successful check of the same username and password.
+     *
+     * @param username - String
+     * @param password - String - presented password
+     * @return Authentication - cached authentication or null
+     */
+    public Authentication get(String username, String password) {
+        VerifiedCredential verifiedCredential = this.cache.getIfPresent(username);
+        if (verifiedCredential == null || !MessageDigest.isEqual(verifiedCredential.passwordMac(), mac(password))) {
+            return null;
+        }
+        return verifiedCredential.authentication();
+    }
+
+    public void put(String username, String password, Authentication authentication) {
+        this.cache.put(username, new VerifiedCredential(mac(password), authentication));
+    }
+
+    /**
+     * Removes the verified credential of the given user, e.g. when the user is deleted or the password is changed.
+     *
+     * @param username - String
+     */
+    public void invalidate(String username) {
+        this.cache.invalidate(username);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        invalidate(event.username());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidate(event.username());
+    }
+
+    /**
+     * @return CacheStats - hit rate, hit and miss counts
+     */
+    public CacheStats stats() {
+        return this.cache.stats();
+    }
+
+    private byte[] mac(String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(this.hmacKey);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record VerifiedCredential(byte[] passwordMac, Authentication authentication) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.security.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Lock-free Bloom filter of revoked token ids. mightContain never returns false for an id that was put, so a negative
+ * answer proves that a token is not revoked without touching the database.
+ */
+public class RevocationBloomFilter {
+
+    private static final LongBinaryOperator BITWISE_OR = (left, right) -> left | right;
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions        - long - number of ids the filter is sized for
+     * @param falsePositiveProbability - double - acceptable false positive rate at the expected number of ids
+     */
+    public RevocationBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long expected = Math.max(1L, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1L, (optimalBits + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / expected * Math.log(2)));
+    }
+
+    public void put(String id) {
+        long hash = hash64(id);
+        long hash1 = (int) hash;
+        long hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= this.hashCount; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % this.bitCount;
+            this.bits.getAndAccumulate((int) (index >>> 6), 1L << index, BITWISE_OR);
+        }
+    }
+
+    public boolean mightContain(String id) {
+        long hash = hash64(id);
+        long hash1 = (int) hash;
+        long hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= this.hashCount; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % this.bitCount;
+            if ((this.bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a over the characters followed by the MurmurHash3 finalizer.
+     */
+    private static long hash64(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
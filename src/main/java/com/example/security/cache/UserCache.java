@@ -0,0 +1,109 @@
+package com.example.security.cache;
+
+import com.example.security.entity.UserEntity;
+import com.example.security.event.UserDeletedEvent;
+import com.example.security.event.UserRegisteredEvent;
+import com.example.security.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Size-limited cache of users in front of UserRepository.findByUsername.
+ * Unknown usernames are cached as well (for a shorter time), so that credential-stuffing traffic does not reach the
+ * database. Entries are invalidated by UserRegisteredEvent and UserDeletedEvent once the publishing transaction has
+ * committed. The cache can be switched off with 'user.cache.enabled'.
+ * Misses are loaded on the calling thread outside of any lock held by the cache: concurrent lookups of the same
+ * username wait for the pending future instead of a ConcurrentHashMap bin lock, which would pin a virtual thread's
+ * carrier for the duration of the query. A load racing with an invalidation never re-inserts its (stale) result.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+
+    private final boolean enabled;
+
+    private final AsyncCache<String, Optional<UserEntity>> cache;
+
+    @Autowired
+    public UserCache(UserRepository userRepository,
+                     @Value("${user.cache.enabled:true}") boolean enabled,
+                     @Value("${user.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${user.cache.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${user.cache.negative-ttl-seconds:10}") long negativeTtlSeconds,
+                     MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Optional<UserEntity>>() {
+                    @Override
+                    public long expireAfterCreate(String username, Optional<UserEntity> user, long currentTime) {
+                        return user.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String username, Optional<UserEntity> user, long currentTime, long currentDuration) {
+                        return expireAfterCreate(username, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String username, Optional<UserEntity> user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "userCache");
+    }
+
+    /**
+     * @param username - String
+     * @return UserEntity - user or null if there is no such user
+     */
+    public UserEntity findByUsername(String username) {
+        if (!this.enabled) {
+            return this.userRepository.findByUsername(username);
+        }
+        CompletableFuture<Optional<UserEntity>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<UserEntity>> cached = this.cache.get(username, (name, executor) -> loading);
+        if (cached != loading) {
+            return cached.join().orElse(null);
+        }
+        try {
+            Optional<UserEntity> user = Optional.ofNullable(this.userRepository.findByUsername(username));
+            loading.complete(user);
+            return user.orElse(null);
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(String username) {
+        this.cache.synchronous().invalidate(username);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        invalidate(event.username());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidate(event.username());
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.security.config;
 
+import com.example.security.exception.PasswordHashingBusyException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
@@ -13,6 +15,14 @@ public class AuthenticationEntryPoint extends BasicAuthenticationEntryPoint {
 
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException) throws IOException {
+        PasswordHashingBusyException busy = hashingBusy(authException);
+        if (busy != null) {
+            response.addHeader(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfterSeconds()));
+            response.setContentType("application/json");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.getOutputStream().println("{\"error\":\"" + busy.getMessage() + "\" }");
+            return;
+        }
         response.addHeader("WWW-Authenticate", "realm=" + getRealmName());
         response.setContentType("application/json");
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -24,4 +34,17 @@ public class AuthenticationEntryPoint extends BasicAuthenticationEntryPoint {
         setRealmName("MyApplication");
         super.afterPropertiesSet();
     }
+
+    /**
+     * Password hashing pool overload is reported as 503 with Retry-After rather than 401.
+     */
+    private static PasswordHashingBusyException hashingBusy(AuthenticationException authException) {
+        if (authException instanceof PasswordHashingBusyException busy) {
+            return busy;
+        }
+        if (authException.getCause() instanceof PasswordHashingBusyException busy) {
+            return busy;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,48 @@
+package com.example.security.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt cost for the current hardware: the highest strength whose hashing time stays within the target
+ * latency. Every strength step doubles the hashing time, so a single measurement at the minimum strength is enough.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+
+    /**
+     * Never go below the BCryptPasswordEncoder default.
+     */
+    static final int MIN_STRENGTH = 10;
+
+    static final int MAX_STRENGTH = 16;
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * @param targetMillis - long - acceptable time of one hash operation
+     * @return int - BCrypt strength between 10 and 16
+     */
+    public static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        /* warm up */
+        encoder.encode(SAMPLE_PASSWORD);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        long elapsedMillis = Math.max(1L, (System.nanoTime() - start) / 1_000_000L);
+
+        int strength = MIN_STRENGTH;
+        long expectedMillis = elapsedMillis;
+        while (strength < MAX_STRENGTH && expectedMillis * 2 <= targetMillis) {
+            strength++;
+            expectedMillis *= 2;
+        }
+        LOG.info("BCrypt strength {} selected (~{} ms per hash, target {} ms)", strength, expectedMillis, targetMillis);
+        return strength;
+    }
+}
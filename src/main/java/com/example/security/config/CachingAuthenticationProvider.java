@@ -0,0 +1,44 @@
+package com.example.security.config;
+
+import com.example.security.cache.CredentialCache;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * AuthenticationProvider which answers repeated username/password checks from the CredentialCache and only delegates
+ * to the wrapped provider (BCrypt verification) on a cache miss.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+
+    private final CredentialCache credentialCache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, CredentialCache credentialCache) {
+        this.delegate = delegate;
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return this.delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        Authentication cached = this.credentialCache.get(username, password);
+        if (cached != null) {
+            return cached;
+        }
+        Authentication result = this.delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            this.credentialCache.put(username, password, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return this.delegate.supports(authentication);
+    }
+}
@@ -29,7 +29,7 @@ public class CreateUsersOnLoad implements ApplicationListener<ContextRefreshedEv
     @Override
     @Transactional
     public void onApplicationEvent(ContextRefreshedEvent event) {
-        if (alreadySetup || userRepository.findAll().iterator().hasNext()) {
+        if (alreadySetup || userRepository.count() > 0) {
             return;
         }
 
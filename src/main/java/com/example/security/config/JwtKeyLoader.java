@@ -0,0 +1,97 @@
+package com.example.security.config;
+
+import com.example.security.constant.SigningAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Loads the PEM encoded key pair (PKCS#8 private key, X.509 public key) matching the configured signing algorithm
+ * and converts it to a JWK holding both the public and the private part.
+ */
+public final class JwtKeyLoader {
+
+    /**
+     * Raw Ed25519 keys are the trailing 32 bytes of their PKCS#8 / X.509 encodings.
+     */
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    private JwtKeyLoader() {
+    }
+
+    /**
+     * @param algorithm  - SigningAlgorithm - algorithm the keys are used with
+     * @param privateKey - Resource - PEM file of the private key (classpath: or file:)
+     * @param publicKey  - Resource - PEM file of the public key (classpath: or file:)
+     * @return JWK - key pair as JWK
+     */
+    public static JWK load(SigningAlgorithm algorithm, Resource privateKey, Resource publicKey) {
+        byte[] privateKeyBytes = readPem(privateKey);
+        byte[] publicKeyBytes = readPem(publicKey);
+        try {
+            switch (algorithm) {
+                case RS256 -> {
+                    KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+                    return new RSAKey.Builder((RSAPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(publicKeyBytes)))
+                            .privateKey((RSAPrivateKey) keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKeyBytes)))
+                            .algorithm(algorithm.getJwsAlgorithm())
+                            .build();
+                }
+                case ES256 -> {
+                    KeyFactory keyFactory = KeyFactory.getInstance("EC");
+                    return new ECKey.Builder(Curve.P_256, (ECPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(publicKeyBytes)))
+                            .privateKey((ECPrivateKey) keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKeyBytes)))
+                            .algorithm(algorithm.getJwsAlgorithm())
+                            .build();
+                }
+                case EdDSA -> {
+                    /* validates the encodings before the raw key bytes are taken from them */
+                    KeyFactory keyFactory = KeyFactory.getInstance("Ed25519");
+                    keyFactory.generatePublic(new X509EncodedKeySpec(publicKeyBytes));
+                    keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKeyBytes));
+                    return new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(rawEd25519Key(publicKeyBytes)))
+                            .d(Base64URL.encode(rawEd25519Key(privateKeyBytes)))
+                            .algorithm(algorithm.getJwsAlgorithm())
+                            .build();
+                }
+                default -> throw new IllegalArgumentException("Unsupported signing algorithm: " + algorithm);
+            }
+        } catch (GeneralSecurityException | ClassCastException e) {
+            throw new IllegalStateException("Keys '" + privateKey.getDescription() + "' and '" + publicKey.getDescription()
+                    + "' cannot be used with " + algorithm.getName(), e);
+        }
+    }
+
+    private static byte[] rawEd25519Key(byte[] encoded) {
+        return Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length);
+    }
+
+    private static byte[] readPem(Resource resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            String pem = new String(inputStream.readAllBytes(), StandardCharsets.US_ASCII);
+            String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+            return Base64.getDecoder().decode(base64);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read key " + resource.getDescription(), e);
+        }
+    }
+}
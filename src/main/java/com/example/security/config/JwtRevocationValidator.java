@@ -0,0 +1,42 @@
+package com.example.security.config;
+
+import com.example.security.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects tokens whose 'jti' or token family ('fam') is on the revocation list. Tokens without 'jti' cannot be revoked
+ * and are accepted.
+ */
+@Component
+public class JwtRevocationValidator implements OAuth2TokenValidator<Jwt> {
+
+    /**
+     * Id shared by all tokens descending from one login through refresh grants
+     */
+    public static final String FAMILY_CLAIM = "fam";
+
+    private static final OAuth2Error REVOKED = new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN,
+            "The token has been revoked", null);
+
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        String jti = jwt.getId();
+        if (jti != null && this.tokenRevocationService.isRevoked(jti)) {
+            return OAuth2TokenValidatorResult.failure(REVOKED);
+        }
+        String family = jwt.getClaimAsString(FAMILY_CLAIM);
+        if (family != null && this.tokenRevocationService.isRevoked(family)) {
+            return OAuth2TokenValidatorResult.failure(REVOKED);
+        }
+        return OAuth2TokenValidatorResult.success();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.security.config;
+
+import com.example.security.service.SigningKeyService;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.JWTProcessor;
+
+import java.text.ParseException;
+
+/**
+ * Verifies signed JWTs with the pre-built verifier of the key named by the 'kid' header, looked up in the key ring by
+ * kid instead of selecting and converting keys from a JWK set for every token.
+ * Claims are not checked here, that is done by the OAuth2TokenValidator of NimbusJwtDecoder.
+ */
+public class KidJwtProcessor implements JWTProcessor<SecurityContext> {
+
+    private final SigningKeyService signingKeyService;
+
+    public KidJwtProcessor(SigningKeyService signingKeyService) {
+        this.signingKeyService = signingKeyService;
+    }
+
+    @Override
+    public JWTClaimsSet process(String token, SecurityContext context) throws ParseException, BadJOSEException, JOSEException {
+        return process(JWTParser.parse(token), context);
+    }
+
+    @Override
+    public JWTClaimsSet process(JWT jwt, SecurityContext context) throws BadJOSEException, JOSEException {
+        if (jwt instanceof SignedJWT signedJWT) {
+            return process(signedJWT, context);
+        }
+        throw new BadJOSEException("Only signed JWTs are accepted");
+    }
+
+    @Override
+    public JWTClaimsSet process(PlainJWT plainJWT, SecurityContext context) throws BadJOSEException {
+        throw new BadJOSEException("Unsecured (plain) JWTs are not accepted");
+    }
+
+    @Override
+    public JWTClaimsSet process(SignedJWT signedJWT, SecurityContext context) throws BadJOSEException, JOSEException {
+        String kid = signedJWT.getHeader().getKeyID();
+        JWSVerifier verifier = this.signingKeyService.verifier(kid);
+        if (verifier == null) {
+            throw new BadJOSEException("Unknown signing key: " + kid);
+        }
+        if (!verifier.supportedJWSAlgorithms().contains(signedJWT.getHeader().getAlgorithm())) {
+            throw new BadJOSEException("Unexpected signing algorithm: " + signedJWT.getHeader().getAlgorithm());
+        }
+        if (!signedJWT.verify(verifier)) {
+            throw new BadJWSException("Invalid signature");
+        }
+        try {
+            return signedJWT.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw new BadJOSEException("Invalid JWT claims: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public JWTClaimsSet process(EncryptedJWT encryptedJWT, SecurityContext context) throws BadJOSEException {
+        throw new BadJOSEException("Encrypted JWTs are not accepted");
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.security.config;
+
+import com.example.security.entity.RoleSet;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * Maps the 'scope' claim of an access token back to the interned role authorities (e.g. "USER", "ADMIN"), the same
+ * instances a Basic-auth authentication of the user carries, instead of building new "SCOPE_*" authorities per request.
+ */
+public final class RoleAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    public static final String SCOPE_CLAIM = "scope";
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        RoleSet roles = RoleSet.fromScope(jwt.getClaimAsString(SCOPE_CLAIM));
+        return new JwtAuthenticationToken(jwt, roles.getAuthorities(), jwt.getSubject());
+    }
+}
@@ -1,20 +1,21 @@
 package com.example.security.config;
 
+import com.example.security.cache.CachingJwtDecoder;
+import com.example.security.cache.CredentialCache;
+import com.example.security.filter.RateLimitFilter;
+import com.example.security.filter.RateLimiter;
+import com.example.security.service.SigningKeyService;
 import com.example.security.service.UserDetailsService;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.proc.SecurityContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -23,18 +24,19 @@ import org.springframework.security.config.annotation.web.configurers.CsrfConfig
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.header.writers.XXssProtectionHeaderWriter;
 
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-
 @EnableWebSecurity
 @Configuration
 public class SecurityConfig {
@@ -45,6 +47,8 @@ public class SecurityConfig {
     public static final String[] PUBLIC_PATHS = {
             "/health",
             "/api/auth/signup",
+            "/api/auth/refresh",
+            "/.well-known/jwks.json",
             "/v3/api-docs.yaml",
             "/v3/api-docs/**",
             "/swagger-ui/**",
@@ -66,31 +70,81 @@ public class SecurityConfig {
     AuthenticationEntryPoint authenticationEntryPoint;
 
     /**
-     * RSA Public Key
+     * Whether verified tokens are cached in front of the JwtDecoder.
+     */
+    @Value("${jwt.decoder.cache.enabled:true}")
+    boolean jwtDecoderCacheEnabled;
+
+    /**
+     * Maximum number of verified tokens kept by the JwtDecoder cache.
+     */
+    @Value("${jwt.decoder.cache.maximum-size:10000}")
+    long jwtDecoderCacheMaximumSize;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    /**
+     * BCrypt strength, 0 calibrates the strength on startup to fit 'password.bcrypt.target-millis'
+     */
+    @Value("${password.bcrypt.strength:10}")
+    int bcryptStrength;
+
+    @Value("${password.bcrypt.target-millis:250}")
+    long bcryptTargetMillis;
+
+    /**
+     * Number of password hashing threads, 0 uses the number of available processors
+     */
+    @Value("${password.hashing.pool-size:0}")
+    int passwordHashingPoolSize;
+
+    @Value("${password.hashing.queue-capacity:64}")
+    int passwordHashingQueueCapacity;
+
+    @Value("${password.hashing.retry-after-seconds:1}")
+    long passwordHashingRetryAfterSeconds;
+
+    /**
+     * Checks the revocation list on every bearer request
+     */
+    @Autowired
+    JwtRevocationValidator jwtRevocationValidator;
+
+    /**
+     * Opt-in cache of successful username/password checks (auth.credential-cache.enabled)
      */
-    @Value("${jwt.public.key}")
-    RSAPublicKey key;
+    @Autowired
+    CredentialCache credentialCache;
 
     /**
-     * RSA Private Key
+     * Per-principal token buckets of both security filter chains ('rate-limit.*')
      */
-    @Value("${jwt.private.key}")
-    RSAPrivateKey privateKey;
+    @Autowired
+    RateLimiter rateLimiter;
+
+    @Autowired
+    ObjectMapper objectMapper;
 
     /**
      * DaoAuthenticationProvider extends AbstractUserDetailsAuthenticationProvider
-     * @return authenticationProvider - DaoAuthenticationProvider
+     * If the credential cache is enabled, the DaoAuthenticationProvider is wrapped by CachingAuthenticationProvider.
+     * @return authenticationProvider - AuthenticationProvider
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(this.userDetailsService);
         authenticationProvider.setPasswordEncoder(passwordEncoder());
-        return authenticationProvider;
+        if (!this.credentialCache.isEnabled()) {
+            return authenticationProvider;
+        }
+        return new CachingAuthenticationProvider(authenticationProvider, this.credentialCache);
     }
 
     /**
      * Highest order of SecurityFilterChain defined for Basic Auth authentication only.
+     * Requests are rate limited by the claimed user name before the password is checked.
      *
      * @param http - HttpSecurity
      * @return SecurityFilterChain
@@ -104,12 +158,14 @@ public class SecurityConfig {
                 .authorizeHttpRequests(request -> request.anyRequest().authenticated())
                 .csrf(CsrfConfigurer::disable)
                 .httpBasic(h -> h.authenticationEntryPoint(this.authenticationEntryPoint))
+                .addFilterBefore(new RateLimitFilter(this.rateLimiter, RateLimitFilter::basicUsername, this.objectMapper), BasicAuthenticationFilter.class)
                 .sessionManagement(session ->  session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         return http.build();
     }
 
     /**
      * SecurityFilterChain defined for Bearer Token authentication only.
+     * Requests are rate limited by the token subject once the token has been verified, by client address otherwise.
      *
      * @param http - HttpSecurity
      * @return SecurityFilterChain
@@ -122,7 +178,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(request -> request.requestMatchers(PUBLIC_PATHS).permitAll()
                         .anyRequest().authenticated())
                 .httpBasic(AbstractHttpConfigurer::disable)
-                .oauth2ResourceServer((oauth2) -> oauth2.jwt(Customizer.withDefaults()))
+                .oauth2ResourceServer((oauth2) -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(new RoleAuthenticationConverter())))
+                .addFilterAfter(new RateLimitFilter(this.rateLimiter, RateLimitFilter::authenticatedName, this.objectMapper), BearerTokenAuthenticationFilter.class)
                 .sessionManagement((session) -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .exceptionHandling((exceptions) -> exceptions
                         .authenticationEntryPoint(new BearerTokenAuthenticationEntryPoint())
@@ -140,37 +197,43 @@ public class SecurityConfig {
 
     /**
      * Returns JwtDecoder object using org.springframework.security.oauth2.jwt.NimbusJwtDecoder implementation
-     * which utilizes RSA public key present in the /resources folder of the project.
+     * which verifies tokens with the key of the signing key ring named by their 'kid' header.
+     * Refresh tokens are rejected and every request is checked against the revocation list.
+     * Unless disabled by 'jwt.decoder.cache.enabled', the decoder is wrapped by CachingJwtDecoder so that a token is
+     * verified only once during its lifetime.
      *
+     * @param signingKeyService - SigningKeyService - key ring of the signing keys
      * @return JwtDecoder
      */
     @Bean
-    JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(this.key).build();
-    }
-
-    /**
-     * Returns JwtEncoder object using org.springframework.security.oauth2.jwt.NimbusJwtEncoder implementation .
-     * which utilizes RSA private key present in the /resources folder of the project.
-     *
-     * @return JwtEncoder
-     */
-    @Bean
-    JwtEncoder jwtEncoder() {
-        JWK jwk = new RSAKey.Builder(this.key).privateKey(this.privateKey).build();
-        JWKSource<SecurityContext> jwks = new ImmutableJWKSet<>(new JWKSet(jwk));
-        return new NimbusJwtEncoder(jwks);
+    JwtDecoder jwtDecoder(SigningKeyService signingKeyService) {
+        NimbusJwtDecoder jwtDecoder = SigningKeyDecoders.create(signingKeyService);
+        OAuth2TokenValidator<Jwt> tokenValidator = new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefault(), TokenUseValidator.accessToken());
+        if (!this.jwtDecoderCacheEnabled) {
+            jwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(tokenValidator, this.jwtRevocationValidator));
+            return jwtDecoder;
+        }
+        jwtDecoder.setJwtValidator(tokenValidator);
+        CachingJwtDecoder cachingJwtDecoder = new CachingJwtDecoder(jwtDecoder, this.jwtDecoderCacheMaximumSize,
+                this.jwtRevocationValidator);
+        cachingJwtDecoder.bindTo(this.meterRegistry, "jwtDecoder");
+        return cachingJwtDecoder;
     }
 
     /**
      * Password encoder for storing/fetching user password. This is utilized by DaoAuthenticationProvider bean.
-     * BCryptPasswordEncoder implementation has been used here.
+     * BCryptPasswordEncoder implementation has been used here, executed on a bounded hashing pool so that signup and
+     * Basic-auth floods cannot occupy all request threads.
      *
      * @return PasswordEncoder
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = this.bcryptStrength > 0 ? this.bcryptStrength : BCryptStrengthCalibrator.calibrate(this.bcryptTargetMillis);
+        int poolSize = this.passwordHashingPoolSize > 0 ? this.passwordHashingPoolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize,
+                this.passwordHashingQueueCapacity, this.passwordHashingRetryAfterSeconds);
     }
 
     /**
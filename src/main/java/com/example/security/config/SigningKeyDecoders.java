@@ -0,0 +1,21 @@
+package com.example.security.config;
+
+import com.example.security.service.SigningKeyService;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+/**
+ * Builds NimbusJwtDecoder instances verifying tokens with the keys of the signing key ring.
+ */
+public final class SigningKeyDecoders {
+
+    private SigningKeyDecoders() {
+    }
+
+    /**
+     * @param signingKeyService - SigningKeyService - key ring resolving the verifier by 'kid'
+     * @return NimbusJwtDecoder - decoder with the default validators
+     */
+    public static NimbusJwtDecoder create(SigningKeyService signingKeyService) {
+        return new NimbusJwtDecoder(new KidJwtProcessor(signingKeyService));
+    }
+}
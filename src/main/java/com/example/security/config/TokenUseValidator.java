@@ -0,0 +1,51 @@
+package com.example.security.config;
+
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Keeps access and refresh tokens apart using the 'token_use' claim: refresh tokens are not accepted as bearer tokens
+ * and access tokens are not accepted by the refresh grant.
+ */
+public final class TokenUseValidator implements OAuth2TokenValidator<Jwt> {
+
+    public static final String TOKEN_USE_CLAIM = "token_use";
+
+    public static final String ACCESS = "access";
+
+    public static final String REFRESH = "refresh";
+
+    private final boolean refreshToken;
+
+    private final OAuth2Error error;
+
+    private TokenUseValidator(boolean refreshToken) {
+        this.refreshToken = refreshToken;
+        this.error = new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN,
+                refreshToken ? "Not a refresh token" : "Refresh tokens cannot be used as bearer token", null);
+    }
+
+    /**
+     * Accepts every token except refresh tokens (tokens issued before 'token_use' was introduced have no such claim).
+     */
+    public static TokenUseValidator accessToken() {
+        return new TokenUseValidator(false);
+    }
+
+    /**
+     * Accepts refresh tokens only.
+     */
+    public static TokenUseValidator refreshToken() {
+        return new TokenUseValidator(true);
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        boolean isRefreshToken = REFRESH.equals(jwt.getClaimAsString(TOKEN_USE_CLAIM));
+        return isRefreshToken == this.refreshToken ? OAuth2TokenValidatorResult.success()
+                : OAuth2TokenValidatorResult.failure(this.error);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.security.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncExecutionAspectSupport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs servlet request handling and @Async work on virtual threads when 'virtual-threads.enabled' is true (not Spring
+ * Boot 3.2's 'spring.threads.virtual.enabled', which configures different executors).
+ * Controllers block on JDBC through Spring Data repositories; on virtual threads a blocked request parks and releases
+ * its carrier thread, so concurrency is bounded by the connection pool instead of Tomcat's platform-thread pool.
+ * Needs a Java 21 runtime (the java21 Maven profile, active on JDK 21, compiles for it); the executor is looked up
+ * reflectively so that the project still builds for Java 17, where enabling the mode fails on startup.
+ * Carrier threads are still pinned in places: HikariCP 5.0.1 tracks the statements of a connection in synchronized
+ * methods (ProxyConnection.trackStatement, untrackStatement, closeStatements), entered on every statement, and fills
+ * the pool in a synchronized method (HikariPool.fillPool). The PostgreSQL driver (42.6) locks with
+ * java.util.concurrent locks. Check with -Djdk.tracePinnedThreads=short.
+ * Password hashing stays on the bounded platform pool of BoundedPasswordEncoder, as it is CPU-bound.
+ */
+@Configuration
+@ConditionalOnProperty(name = "virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    /**
+     * @return ExecutorService - executor starting a new virtual thread per task
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            LOG.info("Request handling and @Async tasks run on virtual threads");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("virtual-threads.enabled requires Java 21 or later, running on "
+                    + Runtime.version(), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Unable to create the virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Replaces Tomcat's platform-thread pool ('server.tomcat.threads.max') with the virtual thread executor.
+     *
+     * @param virtualThreadExecutor - ExecutorService
+     * @return TomcatProtocolHandlerCustomizer
+     */
+    @Bean
+    TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Replaces the auto-configured ThreadPoolTaskExecutor used for @Async methods and async event listeners.
+     *
+     * @param virtualThreadExecutor - ExecutorService
+     * @return AsyncTaskExecutor
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncExecutionAspectSupport.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
@@ -4,10 +4,15 @@ public enum AccountConstants {
 
     SERVICE_IS_RUNNING("service is up and running"),
     DELETED("deleted"),
+    IMPORT_CREATED("created"),
+    IMPORT_REJECTED("rejected"),
     ACCOUNT_HOLDER_NAME("accountHolderName"),
     ACCOUNT_BRANCH("accountBranch"),
     ACCOUNT_NUMBER("accountNumber"),
     DEPOSIT_AMOUNT("depositAmount"),
+    FROM_ACCOUNT_NUMBER("fromAccountNumber"),
+    TO_ACCOUNT_NUMBER("toAccountNumber"),
+    TRANSFER_AMOUNT("amount"),
     NEW_BRANCH("newBranch"),
     PROVIDE_VALID_INPUTS("Provide the mandatory request input(s): "),
     ACCOUNT_NOT_FOUND("Account not found."),
@@ -15,6 +20,8 @@ public enum AccountConstants {
     EVENT_ACCOUNT_UPDATE("account_update"),
     EVENT_DEPOSIT("deposit"),
     EVENT_WITHDRAWAL("withdrawal"),
+    EVENT_TRANSFER_OUT("transfer_out"),
+    EVENT_TRANSFER_IN("transfer_in"),
     COMMA(","),
     INSUFFICIENT_ACCOUNT_BALANCE("Withdrawal amount is greater than the available account balance."),
     USER_NOT_FOUND("User not found.");
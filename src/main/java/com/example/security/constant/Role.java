@@ -0,0 +1,20 @@
+package com.example.security.constant;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Roles a user can hold. Each role has a single shared GrantedAuthority instance named after the role.
+ */
+public enum Role {
+
+    USER,
+    TELLER,
+    ADMIN;
+
+    private final GrantedAuthority authority = new SimpleGrantedAuthority(name());
+
+    public GrantedAuthority getAuthority() {
+        return this.authority;
+    }
+}
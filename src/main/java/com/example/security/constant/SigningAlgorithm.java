@@ -0,0 +1,29 @@
+package com.example.security.constant;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+
+/**
+ * Supported JWS algorithms for signing and verifying access tokens, selected with 'jwt.signing.algorithm'.
+ */
+public enum SigningAlgorithm implements JwsAlgorithm {
+
+    RS256(JWSAlgorithm.RS256),
+    ES256(JWSAlgorithm.ES256),
+    EdDSA(JWSAlgorithm.EdDSA);
+
+    private final JWSAlgorithm jwsAlgorithm;
+
+    SigningAlgorithm(JWSAlgorithm jwsAlgorithm) {
+        this.jwsAlgorithm = jwsAlgorithm;
+    }
+
+    @Override
+    public String getName() {
+        return this.jwsAlgorithm.getName();
+    }
+
+    public JWSAlgorithm getJwsAlgorithm() {
+        return this.jwsAlgorithm;
+    }
+}
@@ -4,6 +4,10 @@ import com.example.security.constant.AccountConstants;
 import com.example.security.exception.BadRequestException;
 import com.example.security.exception.ResourceNotFoundException;
 import com.example.security.model.Account;
+import com.example.security.model.AccountImportResult;
+import com.example.security.model.AccountPage;
+import com.example.security.model.AccountSummary;
+import com.example.security.model.AccountSummaryPage;
 import com.example.security.model.DeleteAccount;
 import com.example.security.service.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +18,7 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -26,9 +31,11 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Account management controller.
@@ -41,13 +48,91 @@ public class AccountManagementController {
     @Autowired
     AccountService accountService;
 
-    @Operation(summary = "Get all accounts")
+    /**
+     * Get a page of accounts.
+     *
+     * @param after               - Long - 'nextAfter' of the previous page, omitted for the first page
+     * @param limit               - int - Page size
+     * @param includeTransactions - boolean - Whether the transactions of the accounts are included
+     * @return AccountPage - Accounts ordered by account number
+     * @throws BadRequestException
+     */
+    @Operation(summary = "Get all accounts, page by page")
+    @ApiResponse(responseCode = "200", description = "Page of existing accounts",
+            content = {@Content(mediaType = "application/json", schema = @Schema(implementation = AccountPage.class))})
+    @ApiResponse(responseCode = "400", description = "Invalid page size", content = {@Content})
+    @ApiResponse(responseCode = "401", description = "Unauthorized Access", content = {@Content})
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.ALL_VALUE)
+    public AccountPage getAllAccounts(
+            @Parameter(description = "Account number after which the page starts ('nextAfter' of the previous page)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of accounts") @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Include the transactions of the accounts")
+            @RequestParam(defaultValue = "false") boolean includeTransactions) throws BadRequestException {
+        return this.accountService.getAccounts(after, limit, includeTransactions);
+    }
+
+    /**
+     * Stream all accounts.
+     *
+     * @return StreamingResponseBody - JSON array of all accounts, without transactions
+     */
+    @Operation(summary = "Stream all accounts as JSON array, without transactions")
     @ApiResponse(responseCode = "200", description = "All existing accounts",
             content = {@Content(mediaType = "application/json", schema = @Schema(implementation = Account.class))})
     @ApiResponse(responseCode = "401", description = "Unauthorized Access", content = {@Content})
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.ALL_VALUE)
-    public List<Account> getAllAccounts() {
-        return this.accountService.getAllAccounts();
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllAccounts() {
+        StreamingResponseBody body = this.accountService::streamAccounts;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Get a page of account summaries.
+     *
+     * @param after          - Long - 'nextAfter' of the previous page, omitted for the first page
+     * @param limit          - int - Page size
+     * @param maxStalenessMs - long - Accepted staleness of the read model in milliseconds
+     * @return AccountSummaryPage - Account summaries ordered by account number
+     * @throws BadRequestException
+     */
+    @Operation(summary = "Get account summaries page by page, from the read model if it is fresh enough")
+    @ApiResponse(responseCode = "200", description = "Page of account summaries",
+            content = {@Content(mediaType = "application/json", schema = @Schema(implementation = AccountSummaryPage.class))})
+    @ApiResponse(responseCode = "400", description = "Invalid page size", content = {@Content})
+    @ApiResponse(responseCode = "401", description = "Unauthorized Access", content = {@Content})
+    @GetMapping(value = "/summary", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.ALL_VALUE)
+    public AccountSummaryPage getAccountSummaries(
+            @Parameter(description = "Account number after which the page starts ('nextAfter' of the previous page)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of accounts") @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Accepted staleness of the read model in milliseconds, older data is read from the accounts")
+            @RequestParam(defaultValue = "1000") long maxStalenessMs) throws BadRequestException {
+        return this.accountService.getAccountSummaries(after, limit, maxStalenessMs);
+    }
+
+    /**
+     * Get the summary of an account.
+     *
+     * @param accountNumber  - String - Account number
+     * @param maxStalenessMs - long - Accepted staleness of the read model in milliseconds
+     * @return AccountSummary - Summary of the account
+     */
+    @Operation(summary = "Get an account summary, from the read model if it is fresh enough")
+    @ApiResponse(responseCode = "200", description = "Found an account",
+            content = {@Content(mediaType = "application/json", schema = @Schema(implementation = AccountSummary.class))})
+    @ApiResponse(responseCode = "400", description = "Invalid account number supplied", content = {@Content})
+    @ApiResponse(responseCode = "404", description = "Account not found", content = {@Content})
+    @ApiResponse(responseCode = "401", description = "Unauthorized Access", content = {@Content})
+    @GetMapping(value = "/summary/{accountNumber}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.ALL_VALUE)
+    public AccountSummary getAccountSummary(
+            @Parameter(description = "Account number to be searched")
+            @PathVariable("accountNumber") String accountNumber,
+            @Parameter(description = "Accepted staleness of the read model in milliseconds, older data is read from the account")
+            @RequestParam(defaultValue = "1000") long maxStalenessMs) throws ResourceNotFoundException, BadRequestException {
+        return this.accountService.getAccountSummary(accountNumber, maxStalenessMs);
     }
 
     /**
@@ -69,6 +154,29 @@ public class AccountManagementController {
         return this.accountService.createAccount(account);
     }
 
+    /**
+     * Create accounts in bulk.
+     *
+     * @param request - HttpServletRequest - JSON array (application/json) or NDJSON (application/x-ndjson) of accounts
+     * @return StreamingResponseBody - one result per account, in the format of the request
+     * @throws IOException - if the request body cannot be opened
+     */
+    @Operation(summary = "Create accounts in bulk from a JSON array or NDJSON stream")
+    @ApiResponse(responseCode = "200", description = "Result of every account, created or rejected",
+            content = {@Content(mediaType = "application/json", schema = @Schema(implementation = AccountImportResult.class)),
+                    @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = AccountImportResult.class))})
+    @ApiResponse(responseCode = "401", description = "Unauthorized Access", content = {@Content})
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importAccounts(HttpServletRequest request) throws IOException {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        InputStream inputStream = request.getInputStream();
+        StreamingResponseBody body = outputStream -> this.accountService.importAccounts(inputStream, outputStream, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     /**
      * Get account information.
      *
@@ -132,7 +240,7 @@ public class AccountManagementController {
         this.accountService.deleteAccount(accountNumber);
         return new ResponseEntity<>(DeleteAccount.builder()
                 .timestamp(LocalDateTime.now())
-                .accountNumber(Integer.parseInt(accountNumber))
+                .accountNumber(Long.parseLong(accountNumber))
                 .status(AccountConstants.DELETED.getMessage())
                 .build(), HttpStatus.OK);
     }
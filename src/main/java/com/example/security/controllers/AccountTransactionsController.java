@@ -4,6 +4,9 @@ import com.example.security.exception.BadRequestException;
 import com.example.security.exception.InsufficientAccountBalanceException;
 import com.example.security.exception.ResourceNotFoundException;
 import com.example.security.model.Account;
+import com.example.security.model.TransactionPage;
+import com.example.security.model.Transfer;
+import com.example.security.model.TransferResult;
 import com.example.security.service.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,12 +16,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Account transactions controller.
  */
@@ -61,4 +71,58 @@ public class AccountTransactionsController {
             @RequestParam("amount") String withdrawalAmount) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException {
         return this.accountService.withdraw(accountNumber, withdrawalAmount);
     }
+
+    @Operation(summary = "Transfer between two accounts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Both accounts updated",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TransferResult.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid account numbers and/or amount supplied", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Account not found", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized Access", content = @Content) })
+    @PostMapping(value = "/transfer", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.ALL_VALUE)
+    public TransferResult transfer(
+            @Parameter(description = "Account number to be debited")
+            @RequestParam("fromAccountNumber") String fromAccountNumber,
+            @Parameter(description = "Account number to be credited")
+            @RequestParam("toAccountNumber") String toAccountNumber,
+            @Parameter(description = "Amount to be transferred")
+            @RequestParam("amount") String amount) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException {
+        return this.accountService.transfer(fromAccountNumber, toAccountNumber, amount);
+    }
+
+    @Operation(summary = "Apply several transfers atomically, either all or none")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All accounts updated",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TransferResult.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid transfers supplied", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Account not found", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized Access", content = @Content) })
+    @PostMapping(value = "/transfer/batch", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public TransferResult transferAll(@RequestBody List<Transfer> transfers) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException {
+        return this.accountService.transferAll(transfers);
+    }
+
+    @Operation(summary = "Get the transaction history of an account, most recent first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of transactions",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionPage.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid account number, page token and/or page size supplied", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Account not found", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized Access", content = @Content) })
+    @GetMapping(value = "/history", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.ALL_VALUE)
+    public TransactionPage history(
+            @Parameter(description = "Account number")
+            @RequestParam("accountNumber") String accountNumber,
+            @Parameter(description = "Transactions at or after this time (ISO date-time)")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Transactions before this time (ISO date-time)")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Transaction type, e.g. deposit or withdrawal")
+            @RequestParam(value = "type", required = false) String type,
+            @Parameter(description = "'nextPageToken' of the previous page")
+            @RequestParam(value = "pageToken", required = false) String pageToken,
+            @Parameter(description = "Maximum number of transactions")
+            @RequestParam(value = "limit", defaultValue = "100") int limit) throws ResourceNotFoundException, BadRequestException {
+        return this.accountService.getTransactions(accountNumber, from, to, type, pageToken, limit);
+    }
 }
@@ -1,11 +1,14 @@
 package com.example.security.controllers;
 
 import com.example.security.entity.UserEntity;
+import com.example.security.exception.BadRequestException;
 import com.example.security.exception.UserAlreadyExistAuthenticationException;
 import com.example.security.model.ApiGenericResponse;
 import com.example.security.model.JwtAuthenticationResponse;
+import com.example.security.model.RefreshTokenRequest;
 import com.example.security.model.SignUpRequest;
 import com.example.security.model.User;
+import com.example.security.service.TokenService;
 import com.example.security.service.UserManagementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,18 +20,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.oauth2.jwt.JwtClaimsSet;
-import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.time.Instant;
-import java.util.stream.Collectors;
-
 @Tag(name = "Authentication Management", description = "Authentication Management APIs")
 @RestController
 @RequestMapping("/api/auth")
@@ -38,7 +36,7 @@ public class AuthController {
     UserManagementService userManagementService;
 
     @Autowired
-    JwtEncoder jwtEncoder;
+    TokenService tokenService;
 
     @Operation(summary = "Create a new user")
     @ApiResponse(responseCode = "200", description = "New user created successfully",
@@ -60,29 +58,27 @@ public class AuthController {
     @PostMapping(value = "/token", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.ALL_VALUE)
     public ResponseEntity<JwtAuthenticationResponse> getToken(Authentication authentication) {
         UserEntity localUser = (UserEntity) authentication.getPrincipal();
-        String jwt = getToken(localUser);
-        return ResponseEntity.ok((new JwtAuthenticationResponse(jwt)));
+        return ResponseEntity.ok(this.tokenService.issueTokens(localUser));
+    }
+
+    @Operation(summary = "Exchange a refresh token for a new access token and refresh token")
+    @ApiResponse(responseCode = "200", description = "Fetched access token",
+            content = {@Content(mediaType = "application/json", schema = @Schema(implementation = JwtAuthenticationResponse.class))})
+    @ApiResponse(responseCode = "400", description = "Invalid, expired or revoked refresh token", content = {@Content})
+    @PostMapping(value = "/refresh", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JwtAuthenticationResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) throws BadRequestException {
+        return ResponseEntity.ok(this.tokenService.refresh(refreshTokenRequest.refreshToken()));
     }
 
-    /**
-     * Builds JWT token for the given User.
-     *
-     * @param localUser - UserEntity which implements UserDetails
-     * @return token - String - JWT Token
-     */
-    private String getToken(UserEntity localUser) {
-        Instant now = Instant.now();
-        long expiry = 36000L;
-        String scope = localUser.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(" "));
-        JwtClaimsSet claims = JwtClaimsSet.builder()
-                .issuer("self")
-                .issuedAt(now)
-                .expiresAt(now.plusSeconds(expiry))
-                .subject(localUser.getUsername())
-                .claim("scope", scope)
-                .build();
-        return this.jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    @Operation(summary = "Revoke the current access token and optionally a refresh token of the same user")
+    @ApiResponse(responseCode = "200", description = "Tokens revoked",
+            content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiGenericResponse.class))})
+    @ApiResponse(responseCode = "400", description = "Invalid refresh token", content = {@Content})
+    @ApiResponse(responseCode = "401", description = "Unauthorized Access", content = {@Content})
+    @PostMapping(value = "/revoke", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<ApiGenericResponse> revokeToken(@AuthenticationPrincipal Jwt jwt,
+                                                          @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) throws BadRequestException {
+        this.tokenService.revoke(jwt, refreshTokenRequest != null ? refreshTokenRequest.refreshToken() : null);
+        return ResponseEntity.ok().body(new ApiGenericResponse(true, "Tokens revoked"));
     }
 }
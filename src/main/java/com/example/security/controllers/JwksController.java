@@ -0,0 +1,31 @@
+package com.example.security.controllers;
+
+import com.example.security.service.SigningKeyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Publishes the public keys used to verify access tokens.
+ */
+@Tag(name = "Authentication Management", description = "Authentication Management APIs")
+@RestController
+public class JwksController {
+
+    @Autowired
+    SigningKeyService signingKeyService;
+
+    @Operation(summary = "Get the JSON Web Key Set of all token verification keys")
+    @ApiResponse(responseCode = "200", description = "Public keys indexed by 'kid'", content = {@Content(mediaType = "application/json")})
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> jwks() {
+        return this.signingKeyService.jwks();
+    }
+}
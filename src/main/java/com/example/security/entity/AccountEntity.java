@@ -9,13 +9,14 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 
@@ -24,17 +25,18 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "account")
 public class AccountEntity {
 
     @Id
-    @SequenceGenerator(name = "account_id_seq", sequenceName = "account_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "account_id_seq", sequenceName = "account_id_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_id_seq")
     @Column(name = "id", updatable = false)
     private Long id;
 
     @Column(name = "acc_no")
-    private Integer accNo;
+    private Long accNo;
 
     @Column(name = "holder_name")
     private String holderName;
@@ -49,8 +51,22 @@ public class AccountEntity {
     @Column(name = "balance")
     private Long balance;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "transactions", columnDefinition = "jsonb")
+    /**
+     * Sequence number of the latest ledger event, events of an account are numbered 1, 2, 3, ...
+     */
+    @Column(name = "last_event_seq")
+    private Long lastEventSeq;
+
+    /**
+     * Timestamp of the latest ledger event
+     */
+    @Column(name = "last_event_ts")
+    private LocalDateTime lastEventTs;
+
+    /**
+     * Events of the account, read from the account_event ledger (see AccountEventRepository)
+     */
+    @Transient
     private List<Transaction> transactions;
 
     @Column(name = "created_by")
@@ -0,0 +1,85 @@
+package com.example.security.entity;
+
+import com.example.security.model.Transaction;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the append-only account ledger. Events are only ever inserted, so the cost of an account operation does
+ * not depend on the length of the account's history.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "account_event")
+public class AccountEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "acc_no", updatable = false)
+    private Long accNo;
+
+    /**
+     * Position of the event in the account's history, taken from account.last_event_seq
+     */
+    @Column(name = "seq", updatable = false)
+    private Long seq;
+
+    @Column(name = "type", updatable = false)
+    private String type;
+
+    @Column(name = "ts", updatable = false)
+    private LocalDateTime ts;
+
+    @Column(name = "balance", updatable = false)
+    private Long balance;
+
+    @Column(name = "transaction_amt", updatable = false)
+    private Long transactionAmt;
+
+    @Column(name = "error", updatable = false)
+    private String error;
+
+    /**
+     * @param accNo       - Long - account number
+     * @param seq         - Long - sequence number of the event
+     * @param transaction - Transaction - event
+     * @return AccountEventEntity - ledger row of the event
+     */
+    public static AccountEventEntity of(Long accNo, Long seq, Transaction transaction) {
+        return AccountEventEntity.builder()
+                .accNo(accNo)
+                .seq(seq)
+                .type(transaction.getType())
+                .ts(LocalDateTime.parse(transaction.getTs()))
+                .balance(transaction.getBalance())
+                .transactionAmt(transaction.getTransactionAmt())
+                .error(transaction.getError())
+                .build();
+    }
+
+    public Transaction toTransaction() {
+        return Transaction.builder()
+                .type(this.type)
+                .ts(this.ts.toString())
+                .balance(this.balance)
+                .transactionAmt(this.transactionAmt)
+                .error(this.error)
+                .build();
+    }
+}
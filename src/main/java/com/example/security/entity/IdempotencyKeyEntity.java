@@ -0,0 +1,63 @@
+package com.example.security.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_key")
+public class IdempotencyKeyEntity {
+
+    public static final String PENDING = "PENDING";
+
+    public static final String COMPLETED = "COMPLETED";
+
+    /**
+     * Idempotency-Key header, scoped by the authenticated user and the request path
+     */
+    @Id
+    @Column(name = "idem_key", updatable = false)
+    private String key;
+
+    /**
+     * SHA-256 of method, path and query string of the first request, replays must match it
+     */
+    @Column(name = "request_hash", updatable = false)
+    private String requestHash;
+
+    /**
+     * PENDING while the first request is running, COMPLETED once its response has been stored
+     */
+    @Column(name = "state")
+    private String state;
+
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "body")
+    private String body;
+
+    /**
+     * End of the replay window, the entry can be purged afterwards
+     */
+    @Column(name = "expires_at", updatable = false)
+    private Date expiresAt;
+
+    public boolean isCompleted() {
+        return COMPLETED.equals(this.state);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.security.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_token")
+public class RevokedTokenEntity {
+
+    /**
+     * 'jti' claim of the revoked token
+     */
+    @Id
+    @Column(name = "jti", updatable = false)
+    private String jti;
+
+    /**
+     * 'exp' claim of the revoked token, the entry can be purged afterwards
+     */
+    @Column(name = "expires_at", updatable = false)
+    private Date expiresAt;
+}
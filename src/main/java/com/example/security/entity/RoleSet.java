@@ -0,0 +1,143 @@
+package com.example.security.entity;
+
+import com.example.security.constant.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable set of roles together with its authorities and its 'scope' claim string.
+ * Every distinct combination of roles exists exactly once: instances are interned on class initialisation, so resolving
+ * the roles of a user, the authorities of an authentication or the scope of a token never allocates.
+ * The scope string lists the role names in declaration order, separated by a space, and is also the column value
+ * stored in USER_TABLE.roles.
+ */
+public final class RoleSet implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4613364271092786130L;
+
+    private static final Role[] ROLES = Role.values();
+
+    /**
+     * Interned role sets indexed by the bit mask of their role ordinals.
+     */
+    private static final RoleSet[] INTERNED = new RoleSet[1 << ROLES.length];
+
+    private static final Map<String, RoleSet> BY_SCOPE = new HashMap<>();
+
+    static {
+        for (int mask = 0; mask < INTERNED.length; mask++) {
+            INTERNED[mask] = new RoleSet(mask);
+            BY_SCOPE.put(INTERNED[mask].scope, INTERNED[mask]);
+        }
+    }
+
+    public static final RoleSet EMPTY = INTERNED[0];
+
+    private final int mask;
+
+    private final transient Set<Role> roles;
+
+    private final transient Set<GrantedAuthority> authorities;
+
+    private final transient String scope;
+
+    private RoleSet(int mask) {
+        this.mask = mask;
+        EnumSet<Role> roleSet = EnumSet.noneOf(Role.class);
+        List<GrantedAuthority> authorityList = new ArrayList<>();
+        for (Role role : ROLES) {
+            if ((mask & (1 << role.ordinal())) != 0) {
+                roleSet.add(role);
+                authorityList.add(role.getAuthority());
+            }
+        }
+        this.roles = Collections.unmodifiableSet(roleSet);
+        this.authorities = Collections.unmodifiableSet(new LinkedHashSet<>(authorityList));
+        this.scope = roleSet.stream().map(Role::name).collect(Collectors.joining(" "));
+    }
+
+    /**
+     * @param roles - Role... - roles of the set
+     * @return RoleSet - interned role set
+     */
+    public static RoleSet of(Role... roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= 1 << role.ordinal();
+        }
+        return INTERNED[mask];
+    }
+
+    /**
+     * @param roles - Collection - roles of the set
+     * @return RoleSet - interned role set
+     */
+    public static RoleSet of(Collection<Role> roles) {
+        return of(roles.toArray(new Role[0]));
+    }
+
+    /**
+     * Resolves a scope string. Strings produced by getScope() are found by a single map lookup; other orderings are
+     * parsed. Unknown role names are ignored so that tokens stay valid if a role is removed.
+     *
+     * @param scope - String - space separated role names, may be null
+     * @return RoleSet - interned role set
+     */
+    public static RoleSet fromScope(String scope) {
+        if (scope == null) {
+            return EMPTY;
+        }
+        RoleSet roleSet = BY_SCOPE.get(scope);
+        if (roleSet != null) {
+            return roleSet;
+        }
+        int mask = 0;
+        for (String name : scope.trim().split("\\s+")) {
+            for (Role role : ROLES) {
+                if (role.name().equals(name)) {
+                    mask |= 1 << role.ordinal();
+                }
+            }
+        }
+        return INTERNED[mask];
+    }
+
+    public boolean contains(Role role) {
+        return (this.mask & (1 << role.ordinal())) != 0;
+    }
+
+    public Set<Role> getRoles() {
+        return this.roles;
+    }
+
+    public Set<GrantedAuthority> getAuthorities() {
+        return this.authorities;
+    }
+
+    public String getScope() {
+        return this.scope;
+    }
+
+    @Serial
+    private Object readResolve() {
+        return INTERNED[this.mask];
+    }
+
+    @Override
+    public String toString() {
+        return this.scope;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.security.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a RoleSet as its scope string (e.g. "USER ADMIN") and maps the column value back to the interned instance,
+ * so that the roles are read with the user row itself.
+ */
+@Converter
+public class RoleSetConverter implements AttributeConverter<RoleSet, String> {
+
+    @Override
+    public String convertToDatabaseColumn(RoleSet roleSet) {
+        return roleSet != null ? roleSet.getScope() : RoleSet.EMPTY.getScope();
+    }
+
+    @Override
+    public RoleSet convertToEntityAttribute(String scope) {
+        return RoleSet.fromScope(scope);
+    }
+}
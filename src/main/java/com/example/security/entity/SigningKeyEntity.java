@@ -0,0 +1,38 @@
+package com.example.security.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "signing_key")
+public class SigningKeyEntity {
+
+    @Id
+    @Column(name = "kid", updatable = false)
+    private String kid;
+
+    /**
+     * Key pair serialized as JWK (including the private part), encrypted as compact JWE when a key-encryption key is
+     * configured
+     */
+    @Column(name = "jwk", updatable = false)
+    private String jwk;
+
+    /**
+     * From this point in time the key signs new tokens, until the next key is activated
+     */
+    @Column(name = "activated_at", updatable = false)
+    private Date activatedAt;
+}
@@ -1,6 +1,8 @@
 package com.example.security.entity;
 
+import com.example.security.constant.Role;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -12,11 +14,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.Serial;
-import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Data
@@ -31,7 +31,7 @@ public class UserEntity implements UserDetails {
     private static final long serialVersionUID = -2532457703822323378L;
 
     @Id
-    @SequenceGenerator(name = "user_table_id_seq", sequenceName = "user_table_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "user_table_id_seq", sequenceName = "user_table_id_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_table_id_seq")
     @Column(name = "id", updatable = false)
     private Integer id;
@@ -42,11 +42,17 @@ public class UserEntity implements UserDetails {
     @Column(name = "password")
     private String password;
 
+    /**
+     * Interned role set, stored as space separated role names
+     */
+    @Builder.Default
+    @Convert(converter = RoleSetConverter.class)
+    @Column(name = "roles", nullable = false)
+    private RoleSet roles = RoleSet.of(Role.USER);
+
     @Override
     public Set<GrantedAuthority> getAuthorities() {
-        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
-        authorities.add(new SimpleGrantedAuthority("USER"));
-        return authorities;
+        return this.roles.getAuthorities();
     }
 
     @Override
@@ -0,0 +1,122 @@
+package com.example.security.event;
+
+import com.example.security.cache.AccountCache;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Publishes an AccountChangedEvent for every account of an 'account_changed' notification, sent once per statement by
+ * the triggers on the account table (db/015_notify_account_changes_per_statement.sql), so that the account cache and
+ * the account_summary projection of this instance follow the writes of the reactive variant and of other SQL clients.
+ * Writes of servlet instances do not notify (their connections set 'account.notify_changes' to 'off', see
+ * 'spring.datasource.hikari.connection-init-sql'), because NOTIFY serializes all committing transactions on a
+ * server-wide lock; they publish their AccountChangedEvents locally, other servlet instances see them in their account
+ * cache after at most 'account.cache.ttl-seconds', and in the read model once the writing instance has projected them.
+ * Listens on a dedicated connection outside the pool, from a daemon thread. Notifications sent while the connection is
+ * down are lost, so the whole account cache is dropped on every (re)connect; the read model stays correct through its
+ * freshness check and is caught up by the next change of the account or a rebuild.
+ */
+@Component
+public class AccountChangeNotificationListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountChangeNotificationListener.class);
+
+    private static final String CHANNEL = "account_changed";
+
+    /**
+     * Longest wait for notifications before the thread checks whether it has been stopped
+     */
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final AccountCache accountCache;
+
+    private final boolean enabled;
+
+    private final long reconnectDelayMillis;
+
+    private volatile boolean running;
+
+    private Thread listener;
+
+    @Autowired
+    public AccountChangeNotificationListener(DataSourceProperties dataSourceProperties,
+                                             ApplicationEventPublisher applicationEventPublisher,
+                                             AccountCache accountCache,
+                                             @Value("${account.changes.listen.enabled:true}") boolean enabled,
+                                             @Value("${account.changes.listen.reconnect-delay-ms:5000}") long reconnectDelayMillis) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.accountCache = accountCache;
+        this.enabled = enabled;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (this.enabled) {
+            this.running = true;
+            this.listener = new Thread(this::listen, "account-change-listener");
+            this.listener.setDaemon(true);
+            this.listener.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.running = false;
+        if (this.listener != null) {
+            this.listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (this.running) {
+            try (Connection connection = DriverManager.getConnection(this.dataSourceProperties.determineUrl(),
+                    this.dataSourceProperties.determineUsername(), this.dataSourceProperties.determinePassword());
+                 Statement statement = connection.createStatement()) {
+                statement.execute("listen " + CHANNEL);
+                this.accountCache.invalidateAll();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (this.running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            for (String accNo : notification.getParameter().split(",")) {
+                                this.applicationEventPublisher.publishEvent(new AccountChangedEvent(Long.valueOf(accNo)));
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (this.running) {
+                    LOG.warn("Listening for account changes failed, reconnecting in {} ms", this.reconnectDelayMillis, e);
+                    try {
+                        Thread.sleep(this.reconnectDelayMillis);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
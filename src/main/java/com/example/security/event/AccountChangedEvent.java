@@ -0,0 +1,9 @@
+package com.example.security.event;
+
+/**
+ * Published by AccountService after an account has been created, updated or deleted.
+ *
+ * @param accountNumber - Long - number of the changed account
+ */
+public record AccountChangedEvent(Long accountNumber) {
+}
@@ -0,0 +1,9 @@
+package com.example.security.event;
+
+/**
+ * Published by UserManagementService after a user has been deleted.
+ *
+ * @param username - String - username of the deleted user
+ */
+public record UserDeletedEvent(String username) {
+}
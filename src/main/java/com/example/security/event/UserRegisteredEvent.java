@@ -0,0 +1,9 @@
+package com.example.security.event;
+
+/**
+ * Published by UserManagementService after a new user has been saved.
+ *
+ * @param username - String - username of the new user
+ */
+public record UserRegisteredEvent(String username) {
+}
@@ -0,0 +1,26 @@
+package com.example.security.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+import java.io.Serial;
+
+/**
+ * Thrown when the password hashing pool and its queue are full. Extends AuthenticationServiceException so that the
+ * Basic-auth filter hands it to the AuthenticationEntryPoint instead of treating it as an unexpected failure.
+ */
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    @Serial
+    private static final long serialVersionUID = 3630471196416584541L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(final String message, final long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return this.retryAfterSeconds;
+    }
+}
@@ -4,10 +4,13 @@ import com.example.security.exception.ArgumentValidationException;
 import com.example.security.exception.BadRequestException;
 import com.example.security.exception.ExceptionResponse;
 import com.example.security.exception.InsufficientAccountBalanceException;
+import com.example.security.exception.PasswordHashingBusyException;
 import com.example.security.exception.ResourceNotFoundException;
 import com.example.security.exception.UserAlreadyExistAuthenticationException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -125,6 +128,18 @@ public class ExceptionHandlerControllerAdvice {
                 .build();
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+    public @ResponseBody ExceptionResponse handlePasswordHashingBusyException(final PasswordHashingBusyException exception,
+                                                                              final HttpServletRequest request,
+                                                                              final HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()));
+        return ExceptionResponse.builder()
+                .errorMessage(exception.getMessage())
+                .requestedURI(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
 
     @ExceptionHandler(Exception.class)
     @ResponseStatus(value = HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,300 @@
+package com.example.security.filter;
+
+import com.example.security.entity.IdempotencyKeyEntity;
+import com.example.security.exception.ExceptionResponse;
+import com.example.security.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes deposits, withdrawals and transfers safe to retry. A request carrying an 'Idempotency-Key' header runs at most
+ * once per key, user and path within 'idempotency.ttl-seconds'; a retry gets the stored response of the first run
+ * without reaching the controller.
+ * The key is claimed in the idempotency_key table before the request runs and the response is stored on the same row,
+ * so that a retry finds the claim or the response after eviction, after a restart or on another instance. A duplicate
+ * arriving while the first request is still running waits for its response instead of running a second time; on this
+ * instance through a bounded in-memory cache, elsewhere by polling the row. 5xx responses are not stored, their claim
+ * is released and such requests may be retried.
+ * Requests are told apart by method, path and query string; reusing a key for a different request is answered with
+ * 422.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Autowired
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final List<String> paths;
+
+    private final Duration ttl;
+
+    private final long waitTimeoutMillis;
+
+    private final long pollIntervalMillis;
+
+    /**
+     * Response of every key, incomplete while the first request is running
+     */
+    private final Cache<String, CompletableFuture<StoredResponse>> responses;
+
+    @Autowired
+    public IdempotencyFilter(@Value("${idempotency.enabled:true}") boolean enabled,
+                             @Value("${idempotency.paths:/api/transaction/deposit,/api/transaction/withdraw,/api/transaction/transfer}") List<String> paths,
+                             @Value("${idempotency.maximum-size:100000}") long maximumSize,
+                             @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                             @Value("${idempotency.wait-timeout-ms:30000}") long waitTimeoutMillis,
+                             @Value("${idempotency.poll-interval-ms:100}") long pollIntervalMillis,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.paths = paths;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(this.ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.responses, "idempotencyCache");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !this.enabled || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || HttpMethod.GET.matches(request.getMethod())
+                || !this.paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY_HEADER + " must have 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        String key = principal() + ':' + request.getRequestURI() + ':' + idempotencyKey;
+        String requestHash = requestHash(request);
+        while (true) {
+            CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = this.responses.asMap().putIfAbsent(key, execution);
+            if (running == null) {
+                execute(request, response, filterChain, key, requestHash, execution);
+                return;
+            }
+            StoredResponse stored;
+            try {
+                stored = running.get(this.waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                writeError(request, response, HttpStatus.CONFLICT, "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                stored = null;
+            }
+            if (stored != null) {
+                replay(request, response, stored, requestHash);
+                return;
+            }
+            /* the first request failed without a response to store and has removed its entry, run this one */
+        }
+    }
+
+    /**
+     * Claims the key in the idempotency_key table before the request runs, so that a duplicate on any instance finds
+     * the claim, and stores the response on the claimed row afterwards. A key claimed by a request which is still
+     * running elsewhere is polled every 'idempotency.poll-interval-ms' until its response is stored or
+     * 'idempotency.wait-timeout-ms' has passed (409). A claim left by an instance which stopped while running the
+     * request stays pending until the key expires, because the outcome of that request is unknown.
+     * The outcome is published to requests of this instance waiting for the same key.
+     */
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String key,
+                         String requestHash, CompletableFuture<StoredResponse> execution) throws ServletException, IOException {
+        StoredResponse stored = null;
+        boolean claimed = false;
+        try {
+            long deadline = System.currentTimeMillis() + this.waitTimeoutMillis;
+            while (!(claimed = claim(key, requestHash))) {
+                IdempotencyKeyEntity entity = this.idempotencyKeyRepository.findById(key).orElse(null);
+                if (entity != null && entity.isCompleted()) {
+                    stored = StoredResponse.of(entity);
+                    replay(request, response, stored, requestHash);
+                    return;
+                }
+                if (entity != null) {
+                    if (System.currentTimeMillis() >= deadline) {
+                        writeError(request, response, HttpStatus.CONFLICT, "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                        return;
+                    }
+                    pause();
+                }
+                /* no row: the claim has been released or has expired in the meantime, claim again */
+            }
+            ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(request, responseWrapper);
+            if (responseWrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                stored = new StoredResponse(requestHash, responseWrapper.getStatus(), responseWrapper.getContentType(),
+                        responseWrapper.getContentAsByteArray());
+                store(key, stored);
+            }
+            responseWrapper.copyBodyToResponse();
+        } finally {
+            if (stored == null) {
+                if (claimed) {
+                    release(key);
+                }
+                this.responses.asMap().remove(key, execution);
+            }
+            execution.complete(stored);
+        }
+    }
+
+    private boolean claim(String key, String requestHash) {
+        Date now = new Date();
+        return this.idempotencyKeyRepository.claim(key, requestHash, new Date(now.getTime() + this.ttl.toMillis()), now) == 1;
+    }
+
+    /**
+     * A response which cannot be stored leaves the claim pending, so that retries are answered with 409 instead of
+     * running the request again.
+     */
+    private void store(String key, StoredResponse stored) {
+        try {
+            this.idempotencyKeyRepository.complete(key, stored.status(), stored.contentType(),
+                    new String(stored.body(), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to store the response of idempotency key {}, retries are rejected until it expires", key, e);
+        }
+    }
+
+    private void release(String key) {
+        try {
+            this.idempotencyKeyRepository.release(key);
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to release idempotency key {}, retries are rejected until it expires", key, e);
+        }
+    }
+
+    private void pause() throws ServletException {
+        try {
+            Thread.sleep(this.pollIntervalMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        }
+    }
+
+    private void replay(HttpServletRequest request, HttpServletResponse response, StoredResponse stored,
+                        String requestHash) throws IOException {
+        if (!stored.requestHash().equals(requestHash)) {
+            writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY_HEADER + " has already been used for a different request");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String errorMessage) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        this.objectMapper.writeValue(response.getOutputStream(), ExceptionResponse.builder()
+                .errorMessage(errorMessage)
+                .requestedURI(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Purges responses whose replay window has passed.
+     */
+    @Scheduled(initialDelayString = "${idempotency.purge-interval-ms:600000}",
+            fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = this.idempotencyKeyRepository.deleteExpired(new Date());
+        LOG.debug("Purged {} expired idempotency keys", purged);
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private static String requestHash(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String requestLine = request.getMethod() + ' ' + request.getRequestURI() + (query != null ? '?' + query : "");
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(requestLine.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param requestHash - String - SHA-256 of method, path and query string of the request
+     * @param status      - int - HTTP status
+     * @param contentType - String - content type, may be null
+     * @param body        - byte[] - response body
+     */
+    private record StoredResponse(String requestHash, int status, String contentType, byte[] body) {
+
+        static StoredResponse of(IdempotencyKeyEntity entity) {
+            return new StoredResponse(entity.getRequestHash(), entity.getStatus(), entity.getContentType(),
+                    entity.getBody() != null ? entity.getBody().getBytes(StandardCharsets.UTF_8) : new byte[0]);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.security.filter;
+
+import com.example.security.exception.ExceptionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Applies RateLimiter inside a SecurityFilterChain and answers requests over the limit with 429 and Retry-After.
+ * Allowed requests carry the 'RateLimit-Limit' and 'RateLimit-Remaining' headers. Requests with a principal are also
+ * limited per client address if their group is configured to.
+ * Not a bean on purpose: as a bean it would also be registered as servlet filter outside the security chains.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final RateLimiter rateLimiter;
+
+    private final Function<HttpServletRequest, String> principalResolver;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param rateLimiter       - RateLimiter - token buckets
+     * @param principalResolver - Function - name of the requesting user, null if unknown
+     * @param objectMapper      - ObjectMapper - writes the error response
+     */
+    public RateLimitFilter(RateLimiter rateLimiter, Function<HttpServletRequest, String> principalResolver,
+                           ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.principalResolver = principalResolver;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !this.rateLimiter.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimiter.Group group = this.rateLimiter.group(request.getRequestURI().substring(request.getContextPath().length()));
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String principal = this.principalResolver.apply(request);
+        long result;
+        if (principal == null) {
+            result = this.rateLimiter.tryAcquire(group, request.getRemoteAddr());
+        } else {
+            result = this.rateLimiter.tryAcquireForClientAddress(group, request.getRemoteAddr());
+            if (result >= 0) {
+                result = Math.min(result, this.rateLimiter.tryAcquire(group, principal));
+            }
+        }
+        response.setHeader(LIMIT_HEADER, String.valueOf(group.capacity()));
+        if (result >= 0) {
+            response.setHeader(REMAINING_HEADER, String.valueOf(result));
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String retryAfterSeconds = String.valueOf((-1L - result + 999L) / 1000L);
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(RESET_HEADER, retryAfterSeconds);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        this.objectMapper.writeValue(response.getOutputStream(), ExceptionResponse.builder()
+                .errorMessage("Too many requests, retry after " + retryAfterSeconds + " second(s)")
+                .requestedURI(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Principal of a Basic-auth request: the claimed user name, read before authentication so that failed attempts are
+     * limited as well.
+     */
+    public static String basicUsername(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length())) {
+            return null;
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(authorization.substring(BASIC_PREFIX.length()).trim()),
+                    StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            return colon > 0 ? credentials.substring(0, colon) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Principal of an authenticated request: the 'sub' claim of the bearer token.
+     */
+    public static String authenticatedName(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
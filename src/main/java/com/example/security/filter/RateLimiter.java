@@ -0,0 +1,181 @@
+package com.example.security.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per path group and principal. Every group ('rate-limit.groups') allows a burst of
+ * 'rate-limit.&lt;group&gt;.capacity' requests and refills that many per 'rate-limit.&lt;group&gt;.period-seconds'; the
+ * first group whose path prefix matches a request applies, requests matching no group are not limited. A group with
+ * 'rate-limit.&lt;group&gt;.client-address-capacity' additionally limits every client address (same period), for
+ * endpoints where the principal is an unverified claim such as the Basic-auth user name.
+ * A bucket is a single AtomicLong holding the time of its last refill (monotonic milliseconds since startup, upper 40 bits) and
+ * its tokens (thousandths of a token, lower 24 bits), updated by compare-and-set without locking. Buckets which have
+ * been refilled completely carry no state and are evicted every 'rate-limit.idle-sweep-interval-ms'; a request racing
+ * with the eviction may be granted one extra token.
+ */
+@Component
+public class RateLimiter {
+
+    private static final int TOKEN_BITS = 24;
+
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    /**
+     * One token in bucket units
+     */
+    private static final long TOKEN = 1000L;
+
+    private final boolean enabled;
+
+    private final Group[] groups;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final long startNanos = System.nanoTime();
+
+    @Autowired
+    public RateLimiter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                       @Value("${rate-limit.groups:}") List<String> groupNames,
+                       Environment environment,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        List<Group> configured = new ArrayList<>();
+        for (String name : groupNames) {
+            if (name.isBlank()) {
+                continue;
+            }
+            String prefix = "rate-limit." + name + ".";
+            long capacity = environment.getRequiredProperty(prefix + "capacity", Long.class);
+            long periodMillis = environment.getRequiredProperty(prefix + "period-seconds", Long.class) * 1000L;
+            long clientAddressCapacity = environment.getProperty(prefix + "client-address-capacity", Long.class, 0L);
+            if (capacity < 1 || capacity * TOKEN > TOKEN_MASK || periodMillis < 1
+                    || clientAddressCapacity < 0 || clientAddressCapacity * TOKEN > TOKEN_MASK) {
+                throw new IllegalStateException("Rate limit group '" + name + "' needs a capacity between 1 and "
+                        + TOKEN_MASK / TOKEN + ", a client address capacity up to that and a positive period");
+            }
+            configured.add(new Group(name + ':', name + '@', environment.getRequiredProperty(prefix + "paths", String[].class),
+                    capacity, clientAddressCapacity, periodMillis,
+                    Counter.builder("rate.limit.rejected").tag("group", name).register(meterRegistry)));
+        }
+        this.groups = configured.toArray(new Group[0]);
+    }
+
+    public boolean isEnabled() {
+        return this.enabled && this.groups.length > 0;
+    }
+
+    /**
+     * @param path - String - request path
+     * @return Group - limit applying to the path, null if the path is not limited
+     */
+    public Group group(String path) {
+        for (Group group : this.groups) {
+            for (String pathPrefix : group.pathPrefixes()) {
+                if (path.startsWith(pathPrefix)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes one token from the bucket of the principal.
+     *
+     * @param group     - Group - limit applying to the request
+     * @param principal - String - user name, or client address of unauthenticated requests
+     * @return long - remaining tokens if the request is allowed, otherwise -1 minus the milliseconds until the next
+     * token is available
+     */
+    public long tryAcquire(Group group, String principal) {
+        return tryAcquire(group, group.keyPrefix().concat(principal), group.capacity());
+    }
+
+    /**
+     * Takes one token from the bucket of the client address, if the group limits client addresses.
+     *
+     * @param group         - Group - limit applying to the request
+     * @param clientAddress - String - address of the client
+     * @return long - as tryAcquire(Group, String); Long.MAX_VALUE if the group does not limit client addresses
+     */
+    public long tryAcquireForClientAddress(Group group, String clientAddress) {
+        if (group.clientAddressCapacity() == 0L) {
+            return Long.MAX_VALUE;
+        }
+        return tryAcquire(group, group.clientAddressKeyPrefix().concat(clientAddress), group.clientAddressCapacity());
+    }
+
+    private long tryAcquire(Group group, String bucketKey, long capacity) {
+        AtomicLong bucket = this.buckets.computeIfAbsent(bucketKey, key -> new AtomicLong(pack(now(), capacity * TOKEN)));
+        while (true) {
+            long state = bucket.get();
+            long now = now();
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+            long elapsed = Math.min(now - last, group.periodMillis());
+            long refill = elapsed * capacity * TOKEN / group.periodMillis();
+            if (refill > 0) {
+                tokens = Math.min(capacity * TOKEN, tokens + refill);
+                last = now;
+            }
+            if (tokens < TOKEN) {
+                group.rejected().increment();
+                long waitMillis = ((TOKEN - tokens) * group.periodMillis() + capacity * TOKEN - 1) / (capacity * TOKEN);
+                return -1L - waitMillis;
+            }
+            if (bucket.compareAndSet(state, pack(last, tokens - TOKEN))) {
+                return (tokens - TOKEN) / TOKEN;
+            }
+        }
+    }
+
+    /**
+     * Evicts buckets which would be full by now.
+     */
+    @Scheduled(initialDelayString = "${rate-limit.idle-sweep-interval-ms:60000}",
+            fixedDelayString = "${rate-limit.idle-sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = now();
+        long maxPeriodMillis = 0L;
+        for (Group group : this.groups) {
+            maxPeriodMillis = Math.max(maxPeriodMillis, group.periodMillis());
+        }
+        long idleMillis = maxPeriodMillis;
+        this.buckets.values().removeIf(bucket -> now - (bucket.get() >>> TOKEN_BITS) >= idleMillis);
+    }
+
+    /**
+     * @return long - monotonic milliseconds since startup
+     */
+    private long now() {
+        return (System.nanoTime() - this.startNanos) / 1_000_000L;
+    }
+
+    private static long pack(long millis, long tokens) {
+        return millis << TOKEN_BITS | tokens;
+    }
+
+    /**
+     * @param keyPrefix              - String - prefix of the principal bucket keys of the group
+     * @param clientAddressKeyPrefix - String - prefix of the client address bucket keys of the group
+     * @param pathPrefixes           - String[] - request paths of the group
+     * @param capacity               - long - burst size, also the number of tokens refilled per period
+     * @param clientAddressCapacity  - long - burst size per client address, 0 if client addresses are not limited
+     * @param periodMillis           - long - time in which an empty bucket becomes full
+     * @param rejected               - Counter - rejected requests of the group
+     */
+    public record Group(String keyPrefix, String clientAddressKeyPrefix, String[] pathPrefixes, long capacity,
+                        long clientAddressCapacity, long periodMillis, Counter rejected) {
+    }
+}
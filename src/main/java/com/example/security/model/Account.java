@@ -25,7 +25,7 @@ public class Account implements Serializable {
     private static final long serialVersionUID = 5865597278076349945L;
 
     private Date timestamp;
-    private Integer accountNumber;
+    private Long accountNumber;
     private String accountHolderName;
     private Long accountBalance;
     private Date accountStartDate;
@@ -0,0 +1,24 @@
+package com.example.security.model;
+
+import com.example.security.constant.AccountConstants;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one row of an account import.
+ *
+ * @param row           - long - position of the account in the input, starting at 1
+ * @param accountNumber - Long - number of the created account, null if the row was rejected
+ * @param status        - String - 'created' or 'rejected'
+ * @param error         - String - reason of the rejection, null if the account was created
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccountImportResult(long row, Long accountNumber, String status, String error) {
+
+    public static AccountImportResult created(long row, Long accountNumber) {
+        return new AccountImportResult(row, accountNumber, AccountConstants.IMPORT_CREATED.getMessage(), null);
+    }
+
+    public static AccountImportResult rejected(long row, String error) {
+        return new AccountImportResult(row, null, AccountConstants.IMPORT_REJECTED.getMessage(), error);
+    }
+}
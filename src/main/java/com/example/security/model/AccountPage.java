@@ -0,0 +1,15 @@
+package com.example.security.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Page of accounts ordered by account number.
+ *
+ * @param accounts  - List - accounts of the page
+ * @param nextAfter - Long - value of 'after' for the next page, null on the last page
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccountPage(List<Account> accounts, Long nextAfter) {
+}
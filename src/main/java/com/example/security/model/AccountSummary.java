@@ -0,0 +1,22 @@
+package com.example.security.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact view of an account, served from the account_summary read model.
+ *
+ * @param accountNumber     - Long - account number
+ * @param accountHolderName - String - account holder name
+ * @param accountBranch     - String - branch name
+ * @param accountBalance    - Long - balance
+ * @param eventCount        - Long - number of transactions of the account
+ * @param lastEventType     - String - type of the latest transaction
+ * @param lastEventTs       - LocalDateTime - time of the latest transaction
+ * @param projectedAt       - LocalDateTime - time the read model row was written, null if read from the account table
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccountSummary(Long accountNumber, String accountHolderName, String accountBranch, Long accountBalance,
+                             Long eventCount, String lastEventType, LocalDateTime lastEventTs, LocalDateTime projectedAt) {
+}
@@ -0,0 +1,15 @@
+package com.example.security.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Page of account summaries ordered by account number.
+ *
+ * @param accounts  - List - account summaries of the page
+ * @param nextAfter - Long - value of 'after' for the next page, null on the last page
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccountSummaryPage(List<AccountSummary> accounts, Long nextAfter) {
+}
@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
 public class DeleteAccount {
 
     private LocalDateTime timestamp;
-    private Integer accountNumber;
+    private Long accountNumber;
     private String status;
     private String error;
 }
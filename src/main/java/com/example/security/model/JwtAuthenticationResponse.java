@@ -1,4 +1,7 @@
 package com.example.security.model;
 
-public record JwtAuthenticationResponse(String accessToken) {
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JwtAuthenticationResponse(String accessToken, String refreshToken, Long expiresIn) {
 }
@@ -0,0 +1,6 @@
+package com.example.security.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequest(@NotBlank(message = "refreshToken cannot be blank") String refreshToken) {
+}
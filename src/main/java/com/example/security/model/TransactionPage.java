@@ -0,0 +1,15 @@
+package com.example.security.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Page of account transactions, most recent first.
+ *
+ * @param transactions  - List - transactions of the page
+ * @param nextPageToken - String - token of the next page, null on the last page
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionPage(List<Transaction> transactions, String nextPageToken) {
+}
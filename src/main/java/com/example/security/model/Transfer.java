@@ -0,0 +1,11 @@
+package com.example.security.model;
+
+/**
+ * One leg of a transfer: 'amount' moves from one account to another.
+ *
+ * @param fromAccountNumber - Long - account to be debited
+ * @param toAccountNumber   - Long - account to be credited
+ * @param amount            - Long - positive amount
+ */
+public record Transfer(Long fromAccountNumber, Long toAccountNumber, Long amount) {
+}
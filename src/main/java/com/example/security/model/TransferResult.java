@@ -0,0 +1,13 @@
+package com.example.security.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a committed transfer.
+ *
+ * @param transfers - List - applied legs, in request order
+ * @param balances  - Map - balance of every involved account after the transfer, by account number
+ */
+public record TransferResult(List<Transfer> transfers, Map<Long, Long> balances) {
+}
@@ -0,0 +1,152 @@
+package com.example.security.projection;
+
+import com.example.security.event.AccountChangedEvent;
+import com.example.security.repository.AccountSummaryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps the account_summary read model up to date with the account changes.
+ * Every committed AccountChangedEvent queues its account number (once, until it has been projected); queued accounts
+ * are refreshed every 'account.summary.flush-interval-ms' in batches of 'account.summary.batch-size', off the request
+ * threads. A failed batch is retried on the next run.
+ * The lag is the age of the oldest change not yet in the read model, published as 'account.summary.lag' (seconds)
+ * next to 'account.summary.pending' (queued accounts) and the 'account.summary.refresh' timer.
+ * Every servlet instance projects its own writes; writes of the reactive variant arrive as AccountChangedEvent through
+ * AccountChangeNotificationListener. Changes missed while it was disconnected are caught up by a rebuild
+ * (AccountSummaryRebuildRunner).
+ */
+@Component
+public class AccountSummaryProjector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountSummaryProjector.class);
+
+    private final AccountSummaryRepository accountSummaryRepository;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    private final Timer refreshTimer;
+
+    /**
+     * Batch taken from the queue and not yet projected, only accessed by the flushing thread
+     */
+    private List<Change> inFlight = List.of();
+
+    /**
+     * Time (epoch ms) of the oldest change of the in-flight batch, 0 if there is none
+     */
+    private volatile long inFlightSince;
+
+    @Autowired
+    public AccountSummaryProjector(AccountSummaryRepository accountSummaryRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${account.summary.enabled:true}") boolean enabled,
+                                   @Value("${account.summary.batch-size:500}") int batchSize) {
+        this.accountSummaryRepository = accountSummaryRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.refreshTimer = Timer.builder("account.summary.refresh").register(meterRegistry);
+        Gauge.builder("account.summary.pending", this.queued, Set::size).register(meterRegistry);
+        Gauge.builder("account.summary.lag", this, projector -> projector.lagMillis() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (this.enabled && this.queued.add(event.accountNumber())) {
+            this.changes.offer(new Change(event.accountNumber(), System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * @return long - age in milliseconds of the oldest change which is not yet in the read model, 0 if there is none;
+     * Long.MAX_VALUE if the projection is disabled
+     */
+    public long lagMillis() {
+        if (!this.enabled) {
+            return Long.MAX_VALUE;
+        }
+        long oldest = this.inFlightSince;
+        if (oldest == 0L) {
+            Change head = this.changes.peek();
+            if (head == null) {
+                return 0L;
+            }
+            oldest = head.since();
+        }
+        return Math.max(0L, System.currentTimeMillis() - oldest);
+    }
+
+    @Scheduled(fixedDelayString = "${account.summary.flush-interval-ms:200}")
+    public void flush() {
+        while (true) {
+            if (this.inFlight.isEmpty()) {
+                this.inFlight = poll();
+                if (this.inFlight.isEmpty()) {
+                    return;
+                }
+            }
+            List<Long> accNos = this.inFlight.stream().map(Change::accNo).toList();
+            try {
+                this.refreshTimer.record(() -> this.accountSummaryRepository.refresh(accNos));
+            } catch (DataAccessException e) {
+                LOG.warn("Account summary refresh of {} accounts failed, retrying on the next run", accNos.size(), e);
+                return;
+            }
+            this.inFlight = List.of();
+            this.inFlightSince = 0L;
+            if (accNos.size() < this.batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes the next batch off the queue. An account is dequeued before it is projected, so a change committed during
+     * the refresh queues it again.
+     */
+    private List<Change> poll() {
+        Change head = this.changes.peek();
+        if (head == null) {
+            return List.of();
+        }
+        this.inFlightSince = head.since();
+        List<Change> batch = new ArrayList<>(this.batchSize);
+        Change change;
+        while (batch.size() < this.batchSize && (change = this.changes.poll()) != null) {
+            this.queued.remove(change.accNo());
+            batch.add(change);
+        }
+        return batch;
+    }
+
+    /**
+     * @param accNo - Long - number of the changed account
+     * @param since - long - time (epoch ms) of the first change not yet projected
+     */
+    private record Change(Long accNo, long since) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.security.projection;
+
+import com.example.security.repository.AccountSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Catch-up rebuild of the account_summary read model, run on startup when the application is started with
+ * '--rebuild-account-summary'. Accounts are refreshed in account number order in chunks of
+ * 'account.summary.rebuild-chunk-size', each chunk a statement of its own, so the rebuild can run next to live traffic;
+ * rows of deleted accounts are removed at the end.
+ */
+@Component
+public class AccountSummaryRebuildRunner implements ApplicationRunner {
+
+    public static final String OPTION = "rebuild-account-summary";
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountSummaryRebuildRunner.class);
+
+    @Autowired
+    AccountSummaryRepository accountSummaryRepository;
+
+    @Value("${account.summary.rebuild-chunk-size:1000}")
+    private int chunkSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(OPTION)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return long - number of refreshed accounts
+     */
+    public long rebuild() {
+        long refreshed = 0;
+        Long after = Long.MIN_VALUE;
+        List<Long> accNos;
+        do {
+            accNos = this.accountSummaryRepository.findAccountNumbersAfter(after, this.chunkSize);
+            if (!accNos.isEmpty()) {
+                this.accountSummaryRepository.refresh(accNos);
+                refreshed += accNos.size();
+                after = accNos.get(accNos.size() - 1);
+            }
+        } while (accNos.size() == this.chunkSize);
+        int removed = this.accountSummaryRepository.deleteRemoved();
+        LOG.info("Rebuilt account summary: {} accounts refreshed, {} removed", refreshed, removed);
+        return refreshed;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.security.repository;
+
+import com.example.security.entity.AccountEventEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filtered, keyset-paginated reads of the account_event ledger. Only the filters which are set become part of the
+ * statement, so that PostgreSQL can use the (acc_no, seq), (acc_no, type, seq) or (acc_no, ts) index for every
+ * combination.
+ */
+@Repository
+public class AccountEventQueryRepository {
+
+    private static final RowMapper<AccountEventEntity> ROW_MAPPER = (resultSet, rowNum) -> AccountEventEntity.builder()
+            .id(resultSet.getLong("id"))
+            .accNo(resultSet.getLong("acc_no"))
+            .seq(resultSet.getLong("seq"))
+            .type(resultSet.getString("type"))
+            .ts(resultSet.getTimestamp("ts").toLocalDateTime())
+            .balance(resultSet.getObject("balance", Long.class))
+            .transactionAmt(resultSet.getObject("transaction_amt", Long.class))
+            .error(resultSet.getString("error"))
+            .build();
+
+    @Autowired
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * @param accNo    - Long - account number
+     * @param from     - LocalDateTime - inclusive lower bound of the event time, null for no bound
+     * @param to       - LocalDateTime - exclusive upper bound of the event time, null for no bound
+     * @param type     - String - event type, null for all types
+     * @param beforeSeq - Long - sequence number of the last event of the previous page, null for the first page
+     * @param limit     - int - maximum number of events
+     * @return List - events in sequence order, most recent first
+     */
+    public List<AccountEventEntity> findPage(Long accNo, LocalDateTime from, LocalDateTime to, String type,
+                                             Long beforeSeq, int limit) {
+        StringBuilder sql = new StringBuilder("select id, acc_no, seq, type, ts, balance, transaction_amt, error"
+                + " from account_event where acc_no = :accNo");
+        MapSqlParameterSource parameters = new MapSqlParameterSource("accNo", accNo);
+        if (from != null) {
+            sql.append(" and ts >= :from");
+            parameters.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" and ts < :to");
+            parameters.addValue("to", Timestamp.valueOf(to));
+        }
+        if (type != null) {
+            sql.append(" and type = :type");
+            parameters.addValue("type", type);
+        }
+        if (beforeSeq != null) {
+            sql.append(" and seq < :beforeSeq");
+            parameters.addValue("beforeSeq", beforeSeq);
+        }
+        sql.append(" order by seq desc limit :limit");
+        parameters.addValue("limit", limit);
+        return this.namedParameterJdbcTemplate.query(sql.toString(), parameters, ROW_MAPPER);
+    }
+}
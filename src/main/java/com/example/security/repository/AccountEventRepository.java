@@ -0,0 +1,28 @@
+package com.example.security.repository;
+
+import com.example.security.entity.AccountEventEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountEventRepository extends JpaRepository<AccountEventEntity, Long> {
+
+    @Query(value = "select * from account_event where acc_no = ?1 order by seq desc limit ?2", nativeQuery = true)
+    List<AccountEventEntity> findRecentByAccNo(Long accountNumber, int limit);
+
+    long countByAccNo(Long accountNumber);
+
+    @Query(value = "select * from account_event where acc_no in (?1) order by acc_no, seq", nativeQuery = true)
+    List<AccountEventEntity> findByAccNoIn(Collection<Long> accountNumbers);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from account_event where acc_no = ?1", nativeQuery = true)
+    void deleteByAccNo(Long accountNumber);
+}
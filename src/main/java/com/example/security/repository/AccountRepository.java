@@ -7,14 +7,94 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
 @Repository
 public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
 
     @Query(value = "select * from account where acc_no = ?1", nativeQuery = true)
-    AccountEntity findByAccNo(Integer accountNumber);
+    AccountEntity findByAccNo(Long accountNumber);
 
     @Modifying
     @Transactional
     @Query(value = "delete from account where acc_no = ?1", nativeQuery = true)
-    void deleteByAccNo(Integer accountNumber);
+    void deleteByAccNo(Long accountNumber);
+
+    boolean existsByAccNo(Long accountNumber);
+
+    /**
+     * First number of the next block of account numbers, see AccountNumberAllocator.
+     *
+     * @return Long - first account number of the block
+     */
+    @Transactional
+    @Query(value = "select nextval('account_no_seq')", nativeQuery = true)
+    Long nextAccountNumberBlock();
+
+    /**
+     * @return Long - increment of account_no_seq, which is the size of an account number block; null if there is no
+     * such sequence
+     */
+    @Query(value = "select increment_by from pg_sequences where schemaname = current_schema()"
+            + " and sequencename = 'account_no_seq'", nativeQuery = true)
+    Long accountNumberBlockIncrement();
+
+    /**
+     * Advances the last-event snapshot of the account; the row stays locked until the surrounding transaction ends.
+     *
+     * @param accountNumber - Long - account number
+     * @param ts            - LocalDateTime - timestamp of the new event
+     * @return Long - sequence number of the new event, null if the account does not exist
+     */
+    @Transactional
+    @Query(value = "update account set last_event_seq = last_event_seq + 1, last_event_ts = ?2 where acc_no = ?1"
+            + " returning last_event_seq", nativeQuery = true)
+    Long nextEventSeq(Long accountNumber, LocalDateTime ts);
+
+    /**
+     * Locks the rows of the given accounts in account number order. Every writer which locks more than one account
+     * (transfers, group commits) does so in this order, so that they cannot deadlock each other.
+     *
+     * @param accountNumbers - Collection - account numbers
+     * @return List - numbers of the existing accounts among them
+     */
+    @Transactional
+    @Query(value = "select acc_no from account where acc_no in (?1) order by acc_no for update", nativeQuery = true)
+    List<Long> lockInOrder(Collection<Long> accountNumbers);
+
+    /**
+     * Keyset page: the accounts following 'after' in account number order, read through the acc_no index.
+     * The unused legacy jsonb column is not selected.
+     */
+    @Query(value = "select id, acc_no, holder_name, start_date, branch, balance, last_event_seq, last_event_ts, created_by,"
+            + " modified_by, created_date, modified_date from account where acc_no > ?1 order by acc_no limit ?2", nativeQuery = true)
+    List<AccountEntity> findPageAfter(Long after, int limit);
+
+    /**
+     * Adds 'amount' (negative for a withdrawal) to the balance, advances the last-event snapshot and appends the ledger
+     * event in a single statement.
+     * The balance check runs in the database on the locked row, so concurrent updates of an account neither get lost
+     * nor overdraw it.
+     *
+     * @param accountNumber - Long - account number
+     * @param amount        - Long - signed amount added to the balance
+     * @param eventType     - String - type of the ledger event
+     * @param ts            - LocalDateTime - timestamp of the ledger event
+     * @param modifiedBy    - String - service account
+     * @param modifiedDate  - Date - modification date
+     * @return Long - new balance, null if the account does not exist or the balance would become negative
+     */
+    @Transactional
+    @Query(value = "with updated as ("
+            + " update account set balance = coalesce(balance, 0) + ?2, last_event_seq = last_event_seq + 1,"
+            + " last_event_ts = ?4, modified_by = ?5, modified_date = ?6"
+            + " where acc_no = ?1 and coalesce(balance, 0) + ?2 >= 0"
+            + " returning acc_no, balance, last_event_seq)"
+            + " insert into account_event (acc_no, seq, type, ts, balance, transaction_amt)"
+            + " select acc_no, last_event_seq, ?3, ?4, balance, abs(?2) from updated"
+            + " returning balance", nativeQuery = true)
+    Long addToBalance(Long accountNumber, Long amount, String eventType, LocalDateTime ts, String modifiedBy, Date modifiedDate);
 }
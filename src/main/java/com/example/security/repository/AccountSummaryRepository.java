@@ -0,0 +1,170 @@
+package com.example.security.repository;
+
+import com.example.security.model.AccountSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and refreshes the account_summary read model. A refresh copies the current state of the account row and its
+ * last event instead of applying events one by one, so refreshes are idempotent and may run in any order; a row is
+ * never replaced by an older state (fewer events).
+ * The same projection is also read directly from the account table when the read model is too stale. Freshness is
+ * taken from the database, per row: a row is fresh if it has seen the last event of the account (event_count =
+ * account.last_event_seq), otherwise its staleness is the age of the first event it has not seen.
+ */
+@Repository
+public class AccountSummaryRepository {
+
+    private static final String PROJECTION = "select a.acc_no, a.holder_name, a.branch, a.balance,"
+            + " a.last_event_seq as event_count, e.type as last_event_type, a.last_event_ts";
+
+    private static final String PROJECTION_FROM = " from account a"
+            + " left join account_event e on e.acc_no = a.acc_no and e.seq = a.last_event_seq";
+
+    private static final String REFRESH_SQL = "insert into account_summary (acc_no, holder_name, branch, balance,"
+            + " event_count, last_event_type, last_event_ts, projected_at) "
+            + PROJECTION + ", now()" + PROJECTION_FROM + " where a.acc_no in (:accNos)"
+            + " on conflict (acc_no) do update set holder_name = excluded.holder_name, branch = excluded.branch,"
+            + " balance = excluded.balance, event_count = excluded.event_count,"
+            + " last_event_type = excluded.last_event_type, last_event_ts = excluded.last_event_ts,"
+            + " projected_at = excluded.projected_at"
+            + " where account_summary.event_count < excluded.event_count";
+
+    private static final String DELETE_REMOVED_SQL = "delete from account_summary s where s.acc_no in (:accNos)"
+            + " and not exists (select 1 from account a where a.acc_no = s.acc_no)";
+
+    private static final String SUMMARY_OF_ACCOUNT = "select a.acc_no as account_acc_no, s.acc_no, s.holder_name,"
+            + " s.branch, s.balance, s.event_count, s.last_event_type, s.last_event_ts, s.projected_at,"
+            + " (s.event_count >= a.last_event_seq or unseen.ts >= :staleBefore) as fresh"
+            + " from account a"
+            + " left join account_summary s on s.acc_no = a.acc_no"
+            + " left join account_event unseen on unseen.acc_no = a.acc_no and unseen.seq = s.event_count + 1";
+
+    private static final RowMapper<AccountSummary> ROW_MAPPER = (resultSet, rowNum) -> new AccountSummary(
+            resultSet.getLong("acc_no"),
+            resultSet.getString("holder_name"),
+            resultSet.getString("branch"),
+            resultSet.getObject("balance", Long.class),
+            resultSet.getLong("event_count"),
+            resultSet.getString("last_event_type"),
+            toLocalDateTime(resultSet.getTimestamp("last_event_ts")),
+            toLocalDateTime(resultSet.getTimestamp("projected_at")));
+
+    /**
+     * Maps to the read model row if it is fresh enough, otherwise to null
+     */
+    private static final RowMapper<FreshSummary> FRESH_ROW_MAPPER = (resultSet, rowNum) -> new FreshSummary(
+            resultSet.getLong("account_acc_no"),
+            resultSet.getBoolean("fresh") ? ROW_MAPPER.mapRow(resultSet, rowNum) : null);
+
+    @Autowired
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Brings the read model rows of the given accounts up to date, including the removal of deleted accounts.
+     *
+     * @param accNos - Collection - account numbers
+     */
+    public void refresh(Collection<Long> accNos) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("accNos", accNos);
+        this.namedParameterJdbcTemplate.update(REFRESH_SQL, parameters);
+        this.namedParameterJdbcTemplate.update(DELETE_REMOVED_SQL, parameters);
+    }
+
+    /**
+     * @param after - Long - account number after which the chunk starts
+     * @param limit - int - maximum number of account numbers
+     * @return List - numbers of existing accounts in ascending order
+     */
+    public List<Long> findAccountNumbersAfter(Long after, int limit) {
+        return this.namedParameterJdbcTemplate.queryForList("select acc_no from account where acc_no > :after"
+                        + " order by acc_no limit :limit",
+                new MapSqlParameterSource("after", after).addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * @return int - number of read model rows of accounts which no longer exist
+     */
+    public int deleteRemoved() {
+        return this.namedParameterJdbcTemplate.getJdbcTemplate().update("delete from account_summary s"
+                + " where not exists (select 1 from account a where a.acc_no = s.acc_no)");
+    }
+
+    /**
+     * @param accNo       - Long - account number
+     * @param staleBefore - LocalDateTime - a read model row missing an event older than this is not used
+     * @return AccountSummary - read model row, or the projection from the account table if the row is missing or too
+     * stale; null if there is no such account
+     */
+    public AccountSummary findByAccNo(Long accNo, LocalDateTime staleBefore) {
+        List<FreshSummary> summaries = this.namedParameterJdbcTemplate.query(SUMMARY_OF_ACCOUNT + " where a.acc_no = :accNo",
+                new MapSqlParameterSource("accNo", accNo).addValue("staleBefore", staleBefore), FRESH_ROW_MAPPER);
+        if (summaries.isEmpty()) {
+            return null;
+        }
+        AccountSummary summary = summaries.get(0).summary();
+        return summary != null ? summary : projectByAccNo(accNo);
+    }
+
+    /**
+     * @param after       - Long - account number after which the page starts
+     * @param limit       - int - maximum number of accounts
+     * @param staleBefore - LocalDateTime - a read model row missing an event older than this is not used
+     * @return List - read model rows in account number order, rows which are missing or too stale are replaced by the
+     * projection from the account table
+     */
+    public List<AccountSummary> findPageAfter(Long after, int limit, LocalDateTime staleBefore) {
+        List<FreshSummary> page = this.namedParameterJdbcTemplate.query(SUMMARY_OF_ACCOUNT
+                        + " where a.acc_no > :after order by a.acc_no limit :limit",
+                new MapSqlParameterSource("after", after).addValue("limit", limit).addValue("staleBefore", staleBefore),
+                FRESH_ROW_MAPPER);
+        List<Long> staleAccNos = page.stream().filter(row -> row.summary() == null).map(FreshSummary::accNo).toList();
+        Map<Long, AccountSummary> projected = new HashMap<>();
+        if (!staleAccNos.isEmpty()) {
+            this.namedParameterJdbcTemplate.query(PROJECTION + ", null::timestamp as projected_at" + PROJECTION_FROM
+                            + " where a.acc_no in (:accNos)", new MapSqlParameterSource("accNos", staleAccNos), ROW_MAPPER)
+                    .forEach(summary -> projected.put(summary.accountNumber(), summary));
+        }
+        List<AccountSummary> summaries = new ArrayList<>(page.size());
+        for (FreshSummary row : page) {
+            AccountSummary summary = row.summary() != null ? row.summary() : projected.get(row.accNo());
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * @param accNo - Long - account number
+     * @return AccountSummary - projection computed from the account table, null if there is no such account
+     */
+    public AccountSummary projectByAccNo(Long accNo) {
+        List<AccountSummary> summaries = this.namedParameterJdbcTemplate.query(
+                PROJECTION + ", null::timestamp as projected_at" + PROJECTION_FROM + " where a.acc_no = :accNo",
+                new MapSqlParameterSource("accNo", accNo), ROW_MAPPER);
+        return summaries.isEmpty() ? null : summaries.get(0);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * @param accNo   - Long - account number
+     * @param summary - AccountSummary - read model row, null if it is missing or too stale
+     */
+    private record FreshSummary(Long accNo, AccountSummary summary) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.security.repository;
+
+import com.example.security.entity.IdempotencyKeyEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    /**
+     * Claims the key for a request about to run; a key whose replay window has passed is taken over.
+     *
+     * @param key         - String - scoped idempotency key
+     * @param requestHash - String - SHA-256 of the request
+     * @param expiresAt   - Date - end of the replay window
+     * @param now         - Date - current time
+     * @return int - 1 if the key has been claimed, 0 if another request holds it
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into idempotency_key (idem_key, request_hash, state, expires_at) values (?1, ?2, 'PENDING', ?3)"
+            + " on conflict (idem_key) do update set request_hash = excluded.request_hash, state = 'PENDING', status = null,"
+            + " content_type = null, body = null, expires_at = excluded.expires_at"
+            + " where idempotency_key.expires_at < ?4", nativeQuery = true)
+    int claim(String key, String requestHash, Date expiresAt, Date now);
+
+    /**
+     * Stores the response on the claimed key.
+     *
+     * @return int - 1 if the claim has been completed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "update idempotency_key set state = 'COMPLETED', status = ?2, content_type = ?3, body = ?4"
+            + " where idem_key = ?1 and state = 'PENDING'", nativeQuery = true)
+    int complete(String key, int status, String contentType, String body);
+
+    /**
+     * Gives up the claim of a request which ended without a response to store, so that it can be retried.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "delete from idempotency_key where idem_key = ?1 and state = 'PENDING'", nativeQuery = true)
+    void release(String key);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from idempotency_key where expires_at < ?1", nativeQuery = true)
+    int deleteExpired(Date now);
+}
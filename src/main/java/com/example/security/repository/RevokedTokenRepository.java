@@ -0,0 +1,44 @@
+package com.example.security.repository;
+
+import com.example.security.entity.RevokedTokenEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    /**
+     * Keyset page of revocations which have not expired yet, ordered by jti.
+     */
+    Slice<RevokedTokenEntity> findByJtiGreaterThanAndExpiresAtAfter(String jti, Date now, Pageable pageable);
+
+    /**
+     * @param seconds - double - length of the window, ending now (database time)
+     * @return List - ids of the tokens revoked within the window
+     */
+    @Query(value = "select jti from revoked_token where revoked_at > now() - ?1 * interval '1 second'", nativeQuery = true)
+    List<String> findJtiRevokedWithin(double seconds);
+
+    /**
+     * @param jti       - String - token id
+     * @param expiresAt - Date - expiry of the token
+     * @return int - 1 if the token has been revoked by this call, 0 if it had been revoked before
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into revoked_token (jti, expires_at) values (?1, ?2) on conflict (jti) do nothing", nativeQuery = true)
+    int insertIfAbsent(String jti, Date expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from revoked_token where expires_at < ?1", nativeQuery = true)
+    int deleteExpired(Date now);
+}
@@ -0,0 +1,23 @@
+package com.example.security.repository;
+
+import com.example.security.entity.SigningKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SigningKeyRepository extends JpaRepository<SigningKeyEntity, String> {
+
+    List<SigningKeyEntity> findAllByOrderByActivatedAtAsc();
+
+    /**
+     * Takes a PostgreSQL advisory lock held until the end of the current transaction, which must be active.
+     *
+     * @param lockKey - long - lock key
+     * @return boolean - true if the lock was taken, false if another transaction holds it
+     */
+    @Query(value = "select pg_try_advisory_xact_lock(?1)", nativeQuery = true)
+    boolean tryAdvisoryLock(long lockKey);
+}
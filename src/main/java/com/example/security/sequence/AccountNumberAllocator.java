@@ -0,0 +1,90 @@
+package com.example.security.sequence;
+
+import com.example.security.repository.AccountRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out account numbers from blocks reserved in the account_no_seq database sequence (hi/lo).
+ * One nextval() reserves the numbers [value, value + block size), so only every 'account.number.block-size'-th
+ * account costs a round trip to the database. Blocks are never shared between instances, which keeps numbers unique
+ * across nodes; numbers of a block left unused when an instance stops are skipped.
+ * The block size must equal the increment of account_no_seq (see db/008_widen_account_numbers.sql), which is
+ * checked on startup; a unique index on acc_no (db/013_create_account_acc_no_unique_index.sql) backs the allocation.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Value("${account.number.block-size:50}")
+    private int blockSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Next unused number of the current block, guarded by lock
+     */
+    private long next;
+
+    /**
+     * First number after the current block, guarded by lock
+     */
+    private long limit;
+
+    /**
+     * Fails the startup if blocks of 'account.number.block-size' numbers would overlap (or leave gaps) with the blocks
+     * reserved by account_no_seq.
+     */
+    @PostConstruct
+    public void checkBlockSize() {
+        Long increment = this.accountRepository.accountNumberBlockIncrement();
+        if (increment == null || increment != this.blockSize) {
+            throw new IllegalStateException(String.format(
+                    "account_no_seq increments by %s but 'account.number.block-size' is %d", increment, this.blockSize));
+        }
+    }
+
+    /**
+     * @return Long - unique account number
+     */
+    public Long next() {
+        this.lock.lock();
+        try {
+            if (this.next == this.limit) {
+                long first = this.accountRepository.nextAccountNumberBlock();
+                this.next = first;
+                this.limit = first + this.blockSize;
+            }
+            return this.next++;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes all numbers under one lock, the numbers are not necessarily consecutive.
+     *
+     * @param count - int - number of account numbers
+     * @return List - unique account numbers in ascending order
+     */
+    public List<Long> next(int count) {
+        List<Long> accountNumbers = new ArrayList<>(count);
+        this.lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                accountNumbers.add(next());
+            }
+            return accountNumbers;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
@@ -2,27 +2,37 @@ package com.example.security.serializer;
 
 import com.example.security.builder.AccountTransactionEventBuilder;
 import com.example.security.entity.AccountEntity;
+import com.example.security.sequence.AccountNumberAllocator;
 import com.example.security.model.Account;
-import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class AccountDetailsSerializer {
 
+    @Autowired
+    AccountNumberAllocator accountNumberAllocator;
+
     @Value("${SERVICE_ACCOUNT}")
     private String serviceAccount;
 
     public AccountEntity serializeAccount(Account account) {
+        return serializeAccount(account, this.accountNumberAllocator.next());
+    }
+
+    public AccountEntity serializeAccount(Account account, Long accNo) {
         return AccountEntity.builder()
-                .accNo(Integer.valueOf(RandomStringUtils.randomNumeric(5, 5)))
+                .accNo(accNo)
                 .holderName(account.getAccountHolderName())
                 .startDate(new Date())
                 .branch(account.getAccountBranch())
                 .balance(0L)
-                .transactions(AccountTransactionEventBuilder.createAccountSuccessfulEvent())
+                .transactions(new ArrayList<>(List.of(AccountTransactionEventBuilder.createAccountSuccessfulEvent())))
                 .createdBy(this.serviceAccount)
                 .createdDate(new Date())
                 .build();
@@ -0,0 +1,147 @@
+package com.example.security.service;
+
+import com.example.security.constant.AccountConstants;
+import com.example.security.exception.BadRequestException;
+import com.example.security.model.Account;
+import io.micrometer.common.util.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+/**
+ * Input rules of the account and transaction APIs, shared by the servlet (AccountServiceImpl) and the reactive
+ * implementation so that both answer the same requests with the same errors.
+ */
+public final class AccountRules {
+
+    private AccountRules() {
+    }
+
+    /**
+     * @param accountNumber - String - account number as sent by the client
+     * @return Long - account number
+     * @throws BadRequestException - if the account number is missing or not numeric
+     */
+    public static Long accountNumber(String accountNumber) throws BadRequestException {
+        if (StringUtils.isBlank(accountNumber) || !NumberUtils.isDigits(accountNumber)) {
+            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + AccountConstants.ACCOUNT_NUMBER.getMessage());
+        }
+        return Long.parseLong(accountNumber);
+    }
+
+    /**
+     * Validates the inputs of a deposit or withdrawal.
+     *
+     * @param accountNumber - String - account number as sent by the client
+     * @param amount        - String - amount as sent by the client
+     * @throws BadRequestException - if an input is missing or not numeric
+     */
+    public static void requireAccountAndAmount(String accountNumber, String amount) throws BadRequestException {
+        StringJoiner stringJoiner = new StringJoiner(AccountConstants.COMMA.getMessage());
+        if (StringUtils.isBlank(accountNumber) || !NumberUtils.isDigits(accountNumber)) {
+            stringJoiner.add(AccountConstants.ACCOUNT_NUMBER.getMessage());
+        }
+        if (StringUtils.isBlank(amount) || !NumberUtils.isDigits(amount)) {
+            stringJoiner.add(AccountConstants.DEPOSIT_AMOUNT.getMessage());
+        }
+        if (stringJoiner.length() > 0) {
+            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + stringJoiner);
+        }
+    }
+
+    /**
+     * Validates the inputs of a branch update.
+     *
+     * @param accountNumber - String - account number as sent by the client
+     * @param newBranch     - String - new branch name
+     * @throws BadRequestException - if an input is missing or the account number is not numeric
+     */
+    public static void requireAccountAndBranch(String accountNumber, String newBranch) throws BadRequestException {
+        StringJoiner stringJoiner = new StringJoiner(AccountConstants.COMMA.getMessage());
+        if (StringUtils.isBlank(accountNumber) || !NumberUtils.isDigits(accountNumber)) {
+            stringJoiner.add(AccountConstants.ACCOUNT_NUMBER.getMessage());
+        }
+        if (StringUtils.isBlank(newBranch)) {
+            stringJoiner.add(AccountConstants.NEW_BRANCH.getMessage());
+        }
+        if (stringJoiner.length() > 0) {
+            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + stringJoiner);
+        }
+    }
+
+    /**
+     * Validates the inputs of a transfer.
+     *
+     * @param fromAccountNumber - String - account number of the debited account as sent by the client
+     * @param toAccountNumber   - String - account number of the credited account as sent by the client
+     * @param amount            - String - amount as sent by the client
+     * @throws BadRequestException - if an input is missing or not numeric
+     */
+    public static void requireTransfer(String fromAccountNumber, String toAccountNumber, String amount) throws BadRequestException {
+        StringJoiner stringJoiner = new StringJoiner(AccountConstants.COMMA.getMessage());
+        if (StringUtils.isBlank(fromAccountNumber) || !NumberUtils.isDigits(fromAccountNumber)) {
+            stringJoiner.add(AccountConstants.FROM_ACCOUNT_NUMBER.getMessage());
+        }
+        if (StringUtils.isBlank(toAccountNumber) || !NumberUtils.isDigits(toAccountNumber)) {
+            stringJoiner.add(AccountConstants.TO_ACCOUNT_NUMBER.getMessage());
+        }
+        if (StringUtils.isBlank(amount) || !NumberUtils.isDigits(amount)) {
+            stringJoiner.add(AccountConstants.TRANSFER_AMOUNT.getMessage());
+        }
+        if (stringJoiner.length() > 0) {
+            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + stringJoiner);
+        }
+    }
+
+    /**
+     * @param account - Account - account to be created
+     * @return String - comma separated names of the missing inputs, empty if the account is complete
+     */
+    public static String missingInputs(Account account) {
+        StringJoiner stringJoiner = new StringJoiner(AccountConstants.COMMA.getMessage());
+        if (StringUtils.isBlank(account.getAccountHolderName())) {
+            stringJoiner.add(AccountConstants.ACCOUNT_HOLDER_NAME.getMessage());
+        }
+        if (StringUtils.isBlank(account.getAccountBranch())) {
+            stringJoiner.add(AccountConstants.ACCOUNT_BRANCH.getMessage());
+        }
+        return stringJoiner.toString();
+    }
+
+    /**
+     * @param limit       - int - requested page size
+     * @param maxPageSize - int - largest allowed page size
+     * @throws BadRequestException - if the page size is out of range
+     */
+    public static void requirePageSize(int limit, int maxPageSize) throws BadRequestException {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+    }
+
+    /**
+     * @param pageToken - String - 'nextPageToken' of the previous transaction page, may be blank
+     * @return Long - sequence number of the last transaction of the previous page, null for the first page
+     * @throws BadRequestException - if the token is not one of ours
+     */
+    public static Long beforeSeq(String pageToken) throws BadRequestException {
+        if (StringUtils.isBlank(pageToken)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid page token");
+        }
+    }
+
+    /**
+     * @param seq - long - sequence number of the last transaction of a page
+     * @return String - token of the following page
+     */
+    public static String pageToken(long seq) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(seq).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,7 +4,17 @@ import com.example.security.exception.BadRequestException;
 import com.example.security.exception.InsufficientAccountBalanceException;
 import com.example.security.exception.ResourceNotFoundException;
 import com.example.security.model.Account;
+import com.example.security.model.AccountPage;
+import com.example.security.model.AccountSummary;
+import com.example.security.model.AccountSummaryPage;
+import com.example.security.model.TransactionPage;
+import com.example.security.model.Transfer;
+import com.example.security.model.TransferResult;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AccountService {
@@ -21,5 +31,90 @@ public interface AccountService {
 
     Account withdraw(String accountNumber, String withdrawalAmount) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException;
 
-    List<Account> getAllAccounts();
+    /**
+     * @param fromAccountNumber - String - account to be debited
+     * @param toAccountNumber   - String - account to be credited
+     * @param amount            - String - amount to be transferred
+     * @return TransferResult - new balances of both accounts
+     * @throws ResourceNotFoundException           - if an account does not exist
+     * @throws BadRequestException                 - if an input is invalid
+     * @throws InsufficientAccountBalanceException - if the debited account does not cover the amount
+     */
+    TransferResult transfer(String fromAccountNumber, String toAccountNumber, String amount) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException;
+
+    /**
+     * Applies all legs atomically: either every leg is applied or none.
+     *
+     * @param transfers - List - legs, applied in list order
+     * @return TransferResult - new balances of all involved accounts
+     * @throws ResourceNotFoundException           - if an account does not exist
+     * @throws BadRequestException                 - if a leg is invalid
+     * @throws InsufficientAccountBalanceException - if a debited account does not cover its leg
+     */
+    TransferResult transferAll(List<Transfer> transfers) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException;
+
+    /**
+     * @param after               - Long - account number after which the page starts, null for the first page
+     * @param limit               - int - maximum number of accounts
+     * @param includeTransactions - boolean - whether the accounts' transactions are included
+     * @return AccountPage - accounts ordered by account number
+     * @throws BadRequestException - if the limit is out of range
+     */
+    AccountPage getAccounts(Long after, int limit, boolean includeTransactions) throws BadRequestException;
+
+    /**
+     * Reads the account from the account_summary read model if its row is missing no event older than
+     * 'maxStalenessMs', otherwise (or if the read model has no row for it) from the account table.
+     *
+     * @param accountNumber  - String - account number
+     * @param maxStalenessMs - long - accepted staleness of the read model in milliseconds
+     * @return AccountSummary - summary of the account
+     * @throws ResourceNotFoundException - if the account does not exist
+     * @throws BadRequestException       - if the account number is invalid
+     */
+    AccountSummary getAccountSummary(String accountNumber, long maxStalenessMs) throws ResourceNotFoundException, BadRequestException;
+
+    /**
+     * Reads the page from the account_summary read model; rows missing an event older than 'maxStalenessMs' (or
+     * missing rows) are read from the account table instead.
+     *
+     * @param after          - Long - account number after which the page starts, null for the first page
+     * @param limit          - int - maximum number of accounts
+     * @param maxStalenessMs - long - accepted staleness of the read model in milliseconds
+     * @return AccountSummaryPage - account summaries ordered by account number
+     * @throws BadRequestException - if the limit is out of range
+     */
+    AccountSummaryPage getAccountSummaries(Long after, int limit, long maxStalenessMs) throws BadRequestException;
+
+    /**
+     * Writes all accounts (without transactions) as JSON array, read through a database cursor.
+     *
+     * @param outputStream - OutputStream - response body
+     * @throws IOException - if the response cannot be written
+     */
+    void streamAccounts(OutputStream outputStream) throws IOException;
+
+    /**
+     * Creates the accounts read from a JSON array or NDJSON stream and writes one AccountImportResult per account.
+     *
+     * @param inputStream  - InputStream - request body, JSON array or NDJSON of accounts
+     * @param outputStream - OutputStream - response body
+     * @param ndjson       - boolean - whether the results are written as NDJSON instead of a JSON array
+     * @throws IOException - if the request cannot be read or the response cannot be written
+     */
+    void importAccounts(InputStream inputStream, OutputStream outputStream, boolean ndjson) throws IOException;
+
+    /**
+     * @param accountNumber - String - account number
+     * @param from          - LocalDateTime - inclusive lower bound of the transaction time, may be null
+     * @param to            - LocalDateTime - exclusive upper bound of the transaction time, may be null
+     * @param type          - String - transaction type, may be null
+     * @param pageToken     - String - 'nextPageToken' of the previous page, null for the first page
+     * @param limit         - int - maximum number of transactions
+     * @return TransactionPage - transactions, most recent first
+     * @throws ResourceNotFoundException - if the account does not exist
+     * @throws BadRequestException       - if an input is invalid
+     */
+    TransactionPage getTransactions(String accountNumber, LocalDateTime from, LocalDateTime to, String type,
+                                    String pageToken, int limit) throws ResourceNotFoundException, BadRequestException;
 }
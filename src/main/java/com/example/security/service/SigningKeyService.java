@@ -0,0 +1,37 @@
+package com.example.security.service;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+
+import java.util.Map;
+
+public interface SigningKeyService {
+
+    /**
+     * @return SigningKey - key currently used to sign new tokens
+     */
+    SigningKey activeKey();
+
+    /**
+     * @param kid - String - 'kid' header of the token, null for tokens issued before keys had an id
+     * @return JWSVerifier - verifier of the key or null if the key is unknown or retired
+     */
+    JWSVerifier verifier(String kid);
+
+    /**
+     * @return Map - public JWK set of all keys accepted for verification
+     */
+    Map<String, Object> jwks();
+
+    /**
+     * Pre-built signing material of one key.
+     *
+     * @param kid      - String - key id
+     * @param header   - JWSHeader - header (alg, kid) of tokens signed with this key
+     * @param signer   - JWSSigner
+     * @param verifier - JWSVerifier
+     */
+    record SigningKey(String kid, JWSHeader header, JWSSigner signer, JWSVerifier verifier) {
+    }
+}
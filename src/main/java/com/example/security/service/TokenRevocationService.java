@@ -0,0 +1,15 @@
+package com.example.security.service;
+
+import java.time.Instant;
+
+public interface TokenRevocationService {
+
+    boolean isRevoked(String jti);
+
+    /**
+     * @param jti       - String - token id, or token family id
+     * @param expiresAt - Instant - time after which the revocation can be forgotten
+     * @return boolean - true if the token has been revoked by this call, false if it had been revoked before
+     */
+    boolean revoke(String jti, Instant expiresAt);
+}
@@ -0,0 +1,15 @@
+package com.example.security.service;
+
+import com.example.security.entity.UserEntity;
+import com.example.security.exception.BadRequestException;
+import com.example.security.model.JwtAuthenticationResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+public interface TokenService {
+
+    JwtAuthenticationResponse issueTokens(UserEntity user);
+
+    JwtAuthenticationResponse refresh(String refreshToken) throws BadRequestException;
+
+    void revoke(Jwt accessToken, String refreshToken) throws BadRequestException;
+}
@@ -1,183 +1,647 @@
 package com.example.security.service.impl;
 
+import com.example.security.batch.AccountGroupCommitter;
 import com.example.security.builder.AccountTransactionEventBuilder;
+import com.example.security.cache.AccountCache;
 import com.example.security.constant.AccountConstants;
 import com.example.security.deserializer.AccountDetailsDeserializer;
 import com.example.security.entity.AccountEntity;
+import com.example.security.entity.AccountEventEntity;
+import com.example.security.event.AccountChangedEvent;
 import com.example.security.exception.BadRequestException;
 import com.example.security.exception.InsufficientAccountBalanceException;
 import com.example.security.exception.ResourceNotFoundException;
+import com.example.security.lock.AccountWriteSequencer;
 import com.example.security.model.Account;
+import com.example.security.model.AccountImportResult;
+import com.example.security.model.AccountPage;
+import com.example.security.model.AccountSummary;
+import com.example.security.model.AccountSummaryPage;
 import com.example.security.model.Transaction;
+import com.example.security.model.TransactionPage;
+import com.example.security.model.Transfer;
+import com.example.security.model.TransferResult;
+import com.example.security.repository.AccountEventQueryRepository;
+import com.example.security.repository.AccountEventRepository;
 import com.example.security.repository.AccountRepository;
+import com.example.security.repository.AccountSummaryRepository;
+import com.example.security.sequence.AccountNumberAllocator;
 import com.example.security.serializer.AccountDetailsSerializer;
+import com.example.security.service.AccountRules;
 import com.example.security.service.AccountService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.common.util.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Comparator;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.StringJoiner;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 public class AccountServiceImpl implements AccountService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AccountServiceImpl.class);
+
+    private static final long MAX_STALENESS_MS = Duration.ofDays(36500).toMillis();
+
+    private static final String STREAM_ACCOUNTS_SQL = "select acc_no, holder_name, balance, start_date, branch"
+            + " from account order by acc_no";
+
+    private static final String INSERT_EVENT_SQL = "insert into account_event (acc_no, seq, type, ts, balance, transaction_amt, error)"
+            + " values (?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired
     AccountRepository accountRepository;
 
+    @Autowired
+    AccountEventRepository accountEventRepository;
+
+    @Autowired
+    AccountEventQueryRepository accountEventQueryRepository;
+
     @Autowired
     AccountDetailsDeserializer accountDetailsDeserializer;
 
+    @Autowired
+    AccountWriteSequencer accountWriteSequencer;
+
+    @Autowired
+    AccountGroupCommitter accountGroupCommitter;
+
     @Autowired
     AccountDetailsSerializer accountDetailsSerializer;
 
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    AccountCache accountCache;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    AccountSummaryRepository accountSummaryRepository;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
     @Value("${SERVICE_ACCOUNT}")
     private String serviceAccount;
 
+    @Value("${account.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${account.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Value("${account.recent-transactions:20}")
+    private int recentTransactions;
+
+    @Value("${account.import.chunk-size:500}")
+    private int importChunkSize;
+
+    @Value("${account.transfer.max-legs:1000}")
+    private int transferMaxLegs;
+
+    @Value("${account.transfer.max-attempts:3}")
+    private int transferMaxAttempts;
+
+    @Value("${account.summary.enabled:true}")
+    private boolean summaryEnabled;
+
     @Override
     public Account getAccountInformation(String accountNumber) throws ResourceNotFoundException, BadRequestException {
-        if (StringUtils.isBlank(accountNumber) || !NumberUtils.isDigits(accountNumber)) {
-            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + AccountConstants.ACCOUNT_NUMBER.getMessage());
-        }
-        Optional<AccountEntity> byAccNo = Optional.ofNullable(this.accountRepository.findByAccNo(Integer.parseInt(accountNumber)));
+        Optional<Account> byAccNo = Optional.ofNullable(this.accountCache.get(AccountRules.accountNumber(accountNumber), this::loadAccountInformation));
         if (byAccNo.isEmpty()) {
             throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
         }
-        AccountEntity accountInformation = byAccNo.get();
-        byAccNo.get().getTransactions().sort(Comparator.comparing(Transaction::getTs));
-        return this.accountDetailsDeserializer.deserializeAccount(byAccNo.get());
+        return byAccNo.get();
     }
 
     @Override
-    public Account createAccount(Account account) throws BadRequestException {
-        StringJoiner stringJoiner = new StringJoiner(AccountConstants.COMMA.getMessage());
-        if (StringUtils.isBlank(account.getAccountHolderName())) {
-            stringJoiner.add(AccountConstants.ACCOUNT_HOLDER_NAME.getMessage());
+    public TransactionPage getTransactions(String accountNumber, LocalDateTime from, LocalDateTime to, String type,
+                                           String pageToken, int limit) throws ResourceNotFoundException, BadRequestException {
+        Long accNo = AccountRules.accountNumber(accountNumber);
+        AccountRules.requirePageSize(limit, this.maxPageSize);
+        Long beforeSeq = AccountRules.beforeSeq(pageToken);
+        if (!this.accountRepository.existsByAccNo(accNo)) {
+            throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
         }
-        if (StringUtils.isBlank(account.getAccountBranch())) {
-            stringJoiner.add(AccountConstants.ACCOUNT_BRANCH.getMessage());
+        List<AccountEventEntity> events = this.accountEventQueryRepository.findPage(accNo, from, to,
+                StringUtils.isBlank(type) ? null : type, beforeSeq, limit);
+        String nextPageToken = null;
+        if (events.size() == limit) {
+            nextPageToken = AccountRules.pageToken(events.get(events.size() - 1).getSeq());
         }
+        return new TransactionPage(events.stream().map(AccountEventEntity::toTransaction).toList(), nextPageToken);
+    }
 
-        if (stringJoiner.length() > 0) {
-            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + stringJoiner);
+    @Override
+    @Transactional(value = "transactionManager")
+    public Account createAccount(Account account) throws BadRequestException {
+        String missingInputs = AccountRules.missingInputs(account);
+        if (!missingInputs.isEmpty()) {
+            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + missingInputs);
         }
 
         AccountEntity accountEntity = this.accountDetailsSerializer.serializeAccount(account);
-        return this.accountDetailsDeserializer.deserializeAccount(this.accountRepository.save(accountEntity));
+        List<Transaction> transactions = accountEntity.getTransactions();
+        setLastEvent(accountEntity);
+        AccountEntity createdAccount = this.accountRepository.save(accountEntity);
+        for (int i = 0; i < transactions.size(); i++) {
+            this.accountEventRepository.save(AccountEventEntity.of(createdAccount.getAccNo(), i + 1L, transactions.get(i)));
+        }
+        createdAccount.setTransactions(transactions);
+        this.applicationEventPublisher.publishEvent(new AccountChangedEvent(createdAccount.getAccNo()));
+        return this.accountDetailsDeserializer.deserializeAccount(createdAccount);
     }
 
+    /**
+     * Accounts are read one at a time from the request and imported in chunks of 'account.import.chunk-size'. Each
+     * chunk is validated, takes its account numbers from one AccountNumberAllocator call and is inserted in a
+     * transaction of its own with JDBC batches: the accounts through Hibernate ('hibernate.jdbc.batch_size', ids come
+     * from the pooled account_id_seq), their create events through JdbcTemplate because identity ids disable
+     * Hibernate's batching. The results of a chunk are written once it has been committed and the persistence context
+     * is cleared after every chunk, so memory use depends on the chunk size only.
+     * Imported accounts publish no AccountChangedEvent (they are in no cache); the read model rows of a chunk are built
+     * by one refresh after its commit instead of queueing every account in the projector.
+     * Malformed input ends the import: the rows before it stay imported and one rejection is written for it.
+     */
     @Override
-    public Account updateAccountBranch(String accountNumber, String newBranch) throws ResourceNotFoundException, BadRequestException {
-        StringJoiner stringJoiner = new StringJoiner(AccountConstants.COMMA.getMessage());
-        if (StringUtils.isBlank(accountNumber) || !NumberUtils.isDigits(accountNumber)) {
-            stringJoiner.add(AccountConstants.ACCOUNT_NUMBER.getMessage());
+    public void importAccounts(InputStream inputStream, OutputStream outputStream, boolean ndjson) throws IOException {
+        try (JsonParser parser = this.objectMapper.getFactory().createParser(inputStream);
+             JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+            if (ndjson) {
+                generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            } else {
+                generator.writeStartArray();
+            }
+            MappingIterator<Account> accounts = this.objectMapper.readerFor(Account.class).readValues(parser);
+            List<Account> chunk = new ArrayList<>(this.importChunkSize);
+            long row = 0;
+            String malformedInput = null;
+            try {
+                while (accounts.hasNextValue()) {
+                    chunk.add(accounts.nextValue());
+                    if (chunk.size() == this.importChunkSize) {
+                        writeImportResults(generator, importChunk(chunk, row));
+                        row += chunk.size();
+                        chunk.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                malformedInput = "Malformed input: " + e.getOriginalMessage();
+            }
+            if (!chunk.isEmpty()) {
+                writeImportResults(generator, importChunk(chunk, row));
+                row += chunk.size();
+            }
+            if (malformedInput != null) {
+                writeImportResults(generator, List.of(AccountImportResult.rejected(row + 1, malformedInput)));
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
         }
-        if (StringUtils.isBlank(newBranch)) {
-            stringJoiner.add(AccountConstants.NEW_BRANCH.getMessage());
-        }
-        if (stringJoiner.length() > 0) {
-            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + stringJoiner);
-        }
-        Optional<AccountEntity> byAccNo = Optional.ofNullable(this.accountRepository.findByAccNo(Integer.parseInt(accountNumber)));
-        if (byAccNo.isEmpty()) {
-            throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
+    }
+
+    /**
+     * The write permit is taken before and released after the transaction, so the next writer of the account only
+     * starts once this change has been committed.
+     */
+    @Override
+    public Account updateAccountBranch(String accountNumber, String newBranch) throws ResourceNotFoundException, BadRequestException {
+        AccountRules.requireAccountAndBranch(accountNumber, newBranch);
+        Long accNo = Long.parseLong(accountNumber);
+        try (AccountWriteSequencer.Permit permit = this.accountWriteSequencer.acquire(accNo)) {
+            Account updatedAccount = new TransactionTemplate(this.transactionManager).execute(status -> {
+                AccountEntity existingAccount = this.accountRepository.findByAccNo(accNo);
+                if (existingAccount == null) {
+                    return null;
+                }
+                existingAccount.setBranch(newBranch);
+                existingAccount.setModifiedDate(new Date());
+                existingAccount.setModifiedBy(this.serviceAccount);
+                AccountEntity savedAccount = saveWithEvent(existingAccount, AccountTransactionEventBuilder.updateAccountSuccessfulEvent());
+                this.applicationEventPublisher.publishEvent(new AccountChangedEvent(accNo));
+                return this.accountDetailsDeserializer.deserializeAccount(savedAccount);
+            });
+            if (updatedAccount == null) {
+                throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
+            }
+            return updatedAccount;
         }
-        AccountEntity existingAccount = byAccNo.get();
-        existingAccount.setBranch(newBranch);
-        existingAccount.setTransactions(AccountTransactionEventBuilder
-                .updateAccountSuccessfulEvent(existingAccount.getTransactions()));
-        existingAccount.setModifiedDate(new Date());
-        existingAccount.setModifiedBy(this.serviceAccount);
-        AccountEntity updatedAccount = this.accountRepository.save(existingAccount);
-        updatedAccount.getTransactions().sort(Comparator.comparing(Transaction::getTs));
-        return this.accountDetailsDeserializer.deserializeAccount(updatedAccount);
     }
 
     @Override
+    @Transactional(value = "transactionManager")
     public void deleteAccount(String accountNumber) throws ResourceNotFoundException, BadRequestException {
-        if (StringUtils.isBlank(accountNumber) || !NumberUtils.isDigits(accountNumber)) {
-            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + AccountConstants.ACCOUNT_NUMBER.getMessage());
-        }
-        Optional<AccountEntity> byAccNo = Optional.ofNullable(this.accountRepository.findByAccNo(Integer.parseInt(accountNumber)));
+        Long accNo = AccountRules.accountNumber(accountNumber);
+        Optional<AccountEntity> byAccNo = Optional.ofNullable(this.accountRepository.findByAccNo(accNo));
         if (byAccNo.isEmpty()) {
             throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
         }
-        this.accountRepository.deleteByAccNo(Integer.parseInt(accountNumber));
+        this.accountEventRepository.deleteByAccNo(accNo);
+        this.accountRepository.deleteByAccNo(accNo);
+        this.applicationEventPublisher.publishEvent(new AccountChangedEvent(accNo));
     }
 
+    /**
+     * The balance is updated and the ledger event appended by a single statement, see AccountRepository.addToBalance.
+     * No transaction is opened here so that the row lock is released before the response is read.
+     */
     @Override
     public Account deposit(String accountNumber, String depositAmount) throws ResourceNotFoundException, BadRequestException {
-        StringJoiner stringJoiner = new StringJoiner(AccountConstants.COMMA.getMessage());
-        if (StringUtils.isBlank(accountNumber) || !NumberUtils.isDigits(accountNumber)) {
-            stringJoiner.add(AccountConstants.ACCOUNT_NUMBER.getMessage());
+        AccountRules.requireAccountAndAmount(accountNumber, depositAmount);
+
+        Long accNo = Long.parseLong(accountNumber);
+        int deposit = Integer.parseInt(depositAmount);
+        Long newBalance = addToBalance(accNo, deposit, AccountConstants.EVENT_DEPOSIT.getMessage());
+        if (newBalance == null) {
+            throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
         }
-        if (StringUtils.isBlank(depositAmount) || !NumberUtils.isDigits(depositAmount)) {
-            stringJoiner.add(AccountConstants.DEPOSIT_AMOUNT.getMessage());
+        this.applicationEventPublisher.publishEvent(new AccountChangedEvent(accNo));
+        return this.accountDetailsDeserializer.deserializeAccount(loadAccount(accNo, newBalance));
+    }
+
+    /**
+     * The balance check, the balance update and the ledger event are a single statement, see
+     * AccountRepository.addToBalance. The account is only looked up again to tell a missing account from an
+     * insufficient balance.
+     */
+    @Override
+    public Account withdraw(String accountNumber, String withdrawalAmount) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException {
+        AccountRules.requireAccountAndAmount(accountNumber, withdrawalAmount);
+
+        Long accNo = Long.parseLong(accountNumber);
+        int withdraw = Integer.parseInt(withdrawalAmount);
+        Long newBalance = addToBalance(accNo, -(long) withdraw, AccountConstants.EVENT_WITHDRAWAL.getMessage());
+        if (newBalance == null) {
+            if (!this.accountRepository.existsByAccNo(accNo)) {
+                throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
+            }
+            throw new InsufficientAccountBalanceException(AccountConstants.INSUFFICIENT_ACCOUNT_BALANCE.getMessage());
+        }
+        this.applicationEventPublisher.publishEvent(new AccountChangedEvent(accNo));
+        return this.accountDetailsDeserializer.deserializeAccount(loadAccount(accNo, newBalance));
+    }
+
+    @Override
+    public TransferResult transfer(String fromAccountNumber, String toAccountNumber, String amount) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException {
+        AccountRules.requireTransfer(fromAccountNumber, toAccountNumber, amount);
+        return transferAll(List.of(new Transfer(Long.parseLong(fromAccountNumber), Long.parseLong(toAccountNumber),
+                Long.parseLong(amount))));
+    }
+
+    /**
+     * All legs are applied in one transaction. The rows of every involved account are locked up front in account
+     * number order (AccountRepository.lockInOrder), so concurrent transfers between the same accounts queue up instead
+     * of deadlocking; each leg then debits and credits through AccountRepository.addToBalance, which also appends both
+     * ledger events. Lock failures (deadlocks with other writers, serialization failures, lock timeouts) roll the
+     * transaction back and the transfer is retried up to 'account.transfer.max-attempts' times; any other exception or
+     * error rolls it back and is rethrown.
+     */
+    @Override
+    public TransferResult transferAll(List<Transfer> transfers) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException {
+        if (transfers == null || transfers.isEmpty() || transfers.size() > this.transferMaxLegs) {
+            throw new BadRequestException("Provide between 1 and " + this.transferMaxLegs + " transfers");
         }
-        if (stringJoiner.length() > 0) {
-            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + stringJoiner);
+        SortedSet<Long> accountNumbers = new TreeSet<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            Transfer transfer = transfers.get(i);
+            if (transfer == null || transfer.fromAccountNumber() == null || transfer.toAccountNumber() == null
+                    || transfer.amount() == null || transfer.amount() <= 0
+                    || transfer.fromAccountNumber().equals(transfer.toAccountNumber())) {
+                throw new BadRequestException("Invalid transfer " + (i + 1) + ": two different accounts and a positive amount are required");
+            }
+            accountNumbers.add(transfer.fromAccountNumber());
+            accountNumbers.add(transfer.toAccountNumber());
         }
+        for (int attempt = 1; ; attempt++) {
+            TransactionStatus status = this.transactionManager.getTransaction(TransactionDefinition.withDefaults());
+            try {
+                Map<Long, Long> balances = applyTransfers(transfers, accountNumbers);
+                this.transactionManager.commit(status);
+                accountNumbers.forEach(accNo -> this.applicationEventPublisher.publishEvent(new AccountChangedEvent(accNo)));
+                return new TransferResult(transfers, balances);
+            } catch (PessimisticLockingFailureException e) {
+                rollback(status);
+                if (attempt >= this.transferMaxAttempts) {
+                    throw e;
+                }
+            } catch (Throwable e) {
+                /* Errors included, so that no transaction stays bound to the thread */
+                rollback(status);
+                throw e;
+            }
+        }
+    }
 
-        Optional<AccountEntity> byAccNo = Optional.ofNullable(this.accountRepository.findByAccNo(Integer.parseInt(accountNumber)));
-        if (byAccNo.isEmpty()) {
+    @Override
+    public AccountPage getAccounts(Long after, int limit, boolean includeTransactions) throws BadRequestException {
+        AccountRules.requirePageSize(limit, this.maxPageSize);
+        List<AccountEntity> accounts = this.accountRepository.findPageAfter(after != null ? after : Long.MIN_VALUE, limit);
+        if (includeTransactions && !accounts.isEmpty()) {
+            Map<Long, List<Transaction>> transactionsByAccNo = new HashMap<>();
+            this.accountEventRepository.findByAccNoIn(accounts.stream().map(AccountEntity::getAccNo).toList())
+                    .forEach(event -> transactionsByAccNo
+                            .computeIfAbsent(event.getAccNo(), accNo -> new ArrayList<>())
+                            .add(event.toTransaction()));
+            accounts.forEach(account -> account.setTransactions(transactionsByAccNo.getOrDefault(account.getAccNo(), new ArrayList<>())));
+        }
+        Long nextAfter = accounts.size() == limit ? accounts.get(accounts.size() - 1).getAccNo() : null;
+        return new AccountPage(this.accountDetailsDeserializer.deserializeAccounts(accounts), nextAfter);
+    }
+
+    @Override
+    public AccountSummary getAccountSummary(String accountNumber, long maxStalenessMs) throws ResourceNotFoundException, BadRequestException {
+        Long accNo = AccountRules.accountNumber(accountNumber);
+        AccountSummary summary = this.accountSummaryRepository.findByAccNo(accNo, staleBefore(maxStalenessMs));
+        if (summary == null) {
             throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
         }
-        AccountEntity existingAccount = byAccNo.get();
-        int deposit = Integer.parseInt(depositAmount);
-        Long newBalance = ((existingAccount.getBalance() != null) ? existingAccount.getBalance() : 0L) + deposit;
-        existingAccount.setBalance(newBalance);
-        existingAccount.setModifiedDate(new Date());
-        existingAccount.setModifiedBy(this.serviceAccount);
-        existingAccount.setTransactions(AccountTransactionEventBuilder
-                .createDepositSuccessfulEvent(existingAccount.getTransactions(), deposit));
-        AccountEntity updatedAccount = this.accountRepository.save(existingAccount);
-        updatedAccount.getTransactions().sort(Comparator.comparing(Transaction::getTs));
-        return this.accountDetailsDeserializer.deserializeAccount(updatedAccount);
+        return summary;
     }
 
     @Override
-    public Account withdraw(String accountNumber, String withdrawalAmount) throws ResourceNotFoundException, BadRequestException, InsufficientAccountBalanceException {
-        StringJoiner stringJoiner = new StringJoiner(AccountConstants.COMMA.getMessage());
-        if (StringUtils.isBlank(accountNumber) || !NumberUtils.isDigits(accountNumber)) {
-            stringJoiner.add(AccountConstants.ACCOUNT_NUMBER.getMessage());
+    public AccountSummaryPage getAccountSummaries(Long after, int limit, long maxStalenessMs) throws BadRequestException {
+        AccountRules.requirePageSize(limit, this.maxPageSize);
+        Long from = after != null ? after : Long.MIN_VALUE;
+        List<AccountSummary> summaries = this.accountSummaryRepository.findPageAfter(from, limit, staleBefore(maxStalenessMs));
+        Long nextAfter = summaries.size() == limit ? summaries.get(summaries.size() - 1).accountNumber() : null;
+        return new AccountSummaryPage(summaries, nextAfter);
+    }
+
+    /**
+     * Event timestamps are written with LocalDateTime.now(), so the cut-off is taken from the same clock.
+     */
+    private static LocalDateTime staleBefore(long maxStalenessMs) {
+        return LocalDateTime.now().minus(Duration.ofMillis(Math.max(0L, Math.min(maxStalenessMs, MAX_STALENESS_MS))));
+    }
+
+    /**
+     * Rows are fetched in chunks of 'account.stream.fetch-size' from a server-side cursor (PostgreSQL only uses a
+     * cursor inside a transaction) and each account is written as soon as it has been read, so memory use does not
+     * depend on the number of accounts.
+     */
+    @Override
+    public void streamAccounts(OutputStream outputStream) throws IOException {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(this.dataSource);
+        cursorTemplate.setFetchSize(this.streamFetchSize);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(this.transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(STREAM_ACCOUNTS_SQL, (RowCallbackHandler) resultSet -> {
+                    try {
+                        generator.writeObject(Account.builder()
+                                .accountNumber(resultSet.getLong("acc_no"))
+                                .accountHolderName(resultSet.getString("holder_name"))
+                                .accountBalance(resultSet.getObject("balance", Long.class))
+                                .accountStartDate(resultSet.getTimestamp("start_date"))
+                                .accountBranch(resultSet.getString("branch"))
+                                .build());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
         }
-        if (StringUtils.isBlank(withdrawalAmount) || !NumberUtils.isDigits(withdrawalAmount)) {
-            stringJoiner.add(AccountConstants.DEPOSIT_AMOUNT.getMessage());
+    }
+
+    /**
+     * Applies a balance change either through the group commit ('account.group-commit.enabled') or in a transaction of
+     * its own, serialized per account by AccountWriteSequencer.
+     *
+     * @return Long - new balance, null if the account does not exist or the balance would become negative
+     */
+    private Long addToBalance(Long accNo, long amount, String eventType) {
+        if (this.accountGroupCommitter.isEnabled()) {
+            return this.accountGroupCommitter.addToBalance(accNo, amount, eventType, this.serviceAccount);
         }
-        if (stringJoiner.length() > 0) {
-            throw new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + stringJoiner);
+        try (AccountWriteSequencer.Permit permit = this.accountWriteSequencer.acquire(accNo)) {
+            return this.accountRepository.addToBalance(accNo, amount, eventType, LocalDateTime.now(), this.serviceAccount, new Date());
         }
+    }
 
-        Optional<AccountEntity> byAccNo = Optional.ofNullable(this.accountRepository.findByAccNo(Integer.parseInt(accountNumber)));
-        if (byAccNo.isEmpty()) {
+    /**
+     * Updates the account row, advances its last-event snapshot and appends the event to the ledger with a single
+     * insert, independent of the length of the account's history.
+     */
+    private AccountEntity saveWithEvent(AccountEntity account, Transaction event) {
+        AccountEntity updatedAccount = this.accountRepository.save(account);
+        Long seq = this.accountRepository.nextEventSeq(updatedAccount.getAccNo(), LocalDateTime.parse(event.getTs()));
+        this.accountEventRepository.save(AccountEventEntity.of(updatedAccount.getAccNo(), seq, event));
+        updatedAccount.setTransactions(loadTransactions(updatedAccount.getAccNo()));
+        return updatedAccount;
+    }
+
+    /**
+     * @param transfers      - List - legs of the transfer
+     * @param accountNumbers - SortedSet - all involved accounts
+     * @return Map - balance of every involved account after the transfer
+     */
+    private Map<Long, Long> applyTransfers(List<Transfer> transfers, SortedSet<Long> accountNumbers) throws ResourceNotFoundException, InsufficientAccountBalanceException {
+        if (this.accountRepository.lockInOrder(accountNumbers).size() != accountNumbers.size()) {
             throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
         }
-        AccountEntity existingAccount = byAccNo.get();
-        Integer withdraw = Integer.parseInt(withdrawalAmount);
+        Map<Long, Long> balances = new TreeMap<>();
+        LocalDateTime ts = LocalDateTime.now();
+        Date modifiedDate = new Date();
+        for (Transfer transfer : transfers) {
+            Long fromBalance = this.accountRepository.addToBalance(transfer.fromAccountNumber(), -transfer.amount(),
+                    AccountConstants.EVENT_TRANSFER_OUT.getMessage(), ts, this.serviceAccount, modifiedDate);
+            if (fromBalance == null) {
+                throw new InsufficientAccountBalanceException(AccountConstants.INSUFFICIENT_ACCOUNT_BALANCE.getMessage());
+            }
+            Long toBalance = this.accountRepository.addToBalance(transfer.toAccountNumber(), transfer.amount(),
+                    AccountConstants.EVENT_TRANSFER_IN.getMessage(), ts, this.serviceAccount, modifiedDate);
+            balances.put(transfer.fromAccountNumber(), fromBalance);
+            balances.put(transfer.toAccountNumber(), toBalance);
+        }
+        return balances;
+    }
 
-        Long existingBalance = ((existingAccount.getBalance() != null) ? existingAccount.getBalance() : 0L);
-        if (Long.valueOf(withdraw) > existingBalance) {
-            throw new InsufficientAccountBalanceException(AccountConstants.INSUFFICIENT_ACCOUNT_BALANCE.getMessage());
+    private void rollback(TransactionStatus status) {
+        if (!status.isCompleted()) {
+            this.transactionManager.rollback(status);
         }
+    }
 
-        Long newBalance = existingBalance - withdraw;
-        existingAccount.setBalance(newBalance);
-        existingAccount.setModifiedDate(new Date());
-        existingAccount.setModifiedBy(this.serviceAccount);
-        existingAccount.setTransactions(AccountTransactionEventBuilder
-                .createWithdrawalSuccessfulEvent(existingAccount.getTransactions(), withdraw));
-        AccountEntity updatedAccount = this.accountRepository.save(existingAccount);
-        updatedAccount.getTransactions().sort(Comparator.comparing(Transaction::getTs));
-        return this.accountDetailsDeserializer.deserializeAccount(updatedAccount);
+    /**
+     * @param chunk    - List - accounts to be imported
+     * @param firstRow - long - number of rows before the chunk
+     * @return List - result of every account of the chunk, in input order
+     */
+    private List<AccountImportResult> importChunk(List<Account> chunk, long firstRow) {
+        AccountImportResult[] results = new AccountImportResult[chunk.size()];
+        List<Integer> validRows = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String missingInputs = AccountRules.missingInputs(chunk.get(i));
+            if (missingInputs.isEmpty()) {
+                validRows.add(i);
+            } else {
+                results[i] = AccountImportResult.rejected(firstRow + i + 1, AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + missingInputs);
+            }
+        }
+        List<Long> accountNumbers = this.accountNumberAllocator.next(validRows.size());
+        List<AccountEntity> accountEntities = new ArrayList<>(validRows.size());
+        List<AccountEventEntity> events = new ArrayList<>(validRows.size());
+        for (int i = 0; i < validRows.size(); i++) {
+            AccountEntity accountEntity = this.accountDetailsSerializer.serializeAccount(chunk.get(validRows.get(i)), accountNumbers.get(i));
+            setLastEvent(accountEntity);
+            accountEntities.add(accountEntity);
+            List<Transaction> transactions = accountEntity.getTransactions();
+            for (int j = 0; j < transactions.size(); j++) {
+                events.add(AccountEventEntity.of(accountEntity.getAccNo(), j + 1L, transactions.get(j)));
+            }
+        }
+        String error = null;
+        try {
+            new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+                this.accountRepository.saveAll(accountEntities);
+                this.entityManager.flush();
+                new JdbcTemplate(this.dataSource).batchUpdate(INSERT_EVENT_SQL, events, events.size(), (statement, event) -> {
+                    statement.setLong(1, event.getAccNo());
+                    statement.setLong(2, event.getSeq());
+                    statement.setString(3, event.getType());
+                    statement.setTimestamp(4, Timestamp.valueOf(event.getTs()));
+                    statement.setObject(5, event.getBalance());
+                    statement.setObject(6, event.getTransactionAmt());
+                    statement.setString(7, event.getError());
+                });
+                this.entityManager.clear();
+            });
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            error = e.getMessage();
+        }
+        if (error == null && this.summaryEnabled) {
+            try {
+                this.accountSummaryRepository.refresh(accountNumbers);
+            } catch (DataAccessException e) {
+                LOG.warn("Account summary refresh of {} imported accounts failed, they are read from the account table"
+                        + " until the next --rebuild-account-summary", accountNumbers.size(), e);
+            }
+        }
+        for (int i = 0; i < validRows.size(); i++) {
+            long row = firstRow + validRows.get(i) + 1;
+            results[validRows.get(i)] = error == null ? AccountImportResult.created(row, accountNumbers.get(i))
+                    : AccountImportResult.rejected(row, error);
+        }
+        return List.of(results);
     }
 
-    @Override
-    public List<Account> getAllAccounts() {
-        return this.accountDetailsDeserializer.deserializeAccounts(this.accountRepository.findAll());
+    private void writeImportResults(JsonGenerator generator, List<AccountImportResult> results) throws IOException {
+        for (AccountImportResult result : results) {
+            generator.writeObject(result);
+        }
+        generator.flush();
+    }
+
+    /**
+     * Points the last-event snapshot of a new account at the last of its initial events.
+     */
+    private static void setLastEvent(AccountEntity accountEntity) {
+        List<Transaction> transactions = accountEntity.getTransactions();
+        accountEntity.setLastEventSeq((long) transactions.size());
+        accountEntity.setLastEventTs(LocalDateTime.parse(transactions.get(transactions.size() - 1).getTs()));
+    }
+
+    /**
+     * Loads an account with its recent events on an AccountCache miss.
+     *
+     * @param accNo - Long - account number
+     * @return Account - account or null if there is no such account
+     */
+    private Account loadAccountInformation(Long accNo) {
+        AccountEntity accountInformation = this.accountRepository.findByAccNo(accNo);
+        if (accountInformation == null) {
+            return null;
+        }
+        accountInformation.setTransactions(loadTransactions(accNo));
+        return this.accountDetailsDeserializer.deserializeAccount(accountInformation);
+    }
+
+    /**
+     * @param accNo   - Long - account number
+     * @param balance - Long - balance right after the operation
+     * @return AccountEntity - account with its events
+     * @throws ResourceNotFoundException - if the account has been deleted in the meantime
+     */
+    private AccountEntity loadAccount(Long accNo, Long balance) throws ResourceNotFoundException {
+        AccountEntity account = this.accountRepository.findByAccNo(accNo);
+        if (account == null) {
+            throw new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
+        }
+        account.setBalance(balance);
+        account.setTransactions(loadTransactions(accNo));
+        return account;
+    }
+
+    /**
+     * Only the most recent 'account.recent-transactions' events are loaded, the full history is available through
+     * getTransactions.
+     *
+     * @param accNo - Long - account number
+     * @return List - most recent events of the account in chronological order
+     */
+    private List<Transaction> loadTransactions(Long accNo) {
+        List<AccountEventEntity> events = this.accountEventRepository.findRecentByAccNo(accNo, this.recentTransactions);
+        List<Transaction> transactions = new ArrayList<>(events.size());
+        for (int i = events.size() - 1; i >= 0; i--) {
+            transactions.add(events.get(i).toTransaction());
+        }
+        return transactions;
     }
 }
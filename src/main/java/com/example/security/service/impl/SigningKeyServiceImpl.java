@@ -0,0 +1,421 @@
+package com.example.security.service.impl;
+
+import com.example.security.config.JwtKeyLoader;
+import com.example.security.constant.SigningAlgorithm;
+import com.example.security.entity.SigningKeyEntity;
+import com.example.security.repository.SigningKeyRepository;
+import com.example.security.service.SigningKeyService;
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.crypto.factories.DefaultJWSSignerFactory;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Key ring of JWT signing keys stored in the signing_key table, shared by all instances of the service.
+ * Exactly one key signs new tokens (the latest activated key); every key stays available for verification until all
+ * tokens it signed have expired. A rotated key is published (JWKS, verification) before it is activated for signing,
+ * so that every instance knows it before the first token signed with it arrives.
+ * The ring is an immutable snapshot, swapped on every reload, with pre-built signers and verifiers indexed by kid.
+ * Private keys are stored as JWE (dir, A256GCM) sealed with 'jwt.keys.encryption-key', see README for the threat model.
+ */
+@Service
+public class SigningKeyServiceImpl implements SigningKeyService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SigningKeyServiceImpl.class);
+
+    /**
+     * PostgreSQL advisory lock key serializing the rotation across instances
+     */
+    private static final long ROTATION_LOCK = 0x6a77746b6579L;
+
+    @Autowired
+    SigningKeyRepository signingKeyRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    /**
+     * Algorithm used to sign and verify tokens: RS256, ES256 or EdDSA (Ed25519)
+     */
+    @Value("${jwt.signing.algorithm:RS256}")
+    private SigningAlgorithm signingAlgorithm;
+
+    /**
+     * Public Key (PEM) matching the signing algorithm, used as the first key of an empty key ring
+     */
+    @Value("${jwt.public.key}")
+    private Resource publicKey;
+
+    /**
+     * Private Key (PEM) matching the signing algorithm, used as the first key of an empty key ring
+     */
+    @Value("${jwt.private.key}")
+    private Resource privateKey;
+
+    /**
+     * Key-encryption key (Base64, 256 bit) sealing the stored private keys, required unless plain text keys are allowed
+     */
+    @Value("${jwt.keys.encryption-key:}")
+    private String encryptionKey;
+
+    /**
+     * Development only: stores the private keys unencrypted when no key-encryption key is set
+     */
+    @Value("${jwt.keys.allow-plaintext:false}")
+    private boolean allowPlaintext;
+
+    @Value("${jwt.keys.rotation.enabled:true}")
+    private boolean rotationEnabled;
+
+    @Value("${jwt.keys.rotation-interval-ms:604800000}")
+    private long rotationIntervalMillis;
+
+    @Value("${jwt.keys.refresh-interval-ms:60000}")
+    private long refreshIntervalMillis;
+
+    @Value("${jwt.access-token.expiry-seconds:900}")
+    private long accessTokenExpirySeconds;
+
+    @Value("${jwt.refresh-token.expiry-seconds:86400}")
+    private long refreshTokenExpirySeconds;
+
+    private volatile KeyRing keyRing;
+
+    /**
+     * Key id (thumbprint) of the configured key pair, used for tokens without 'kid' header
+     */
+    private volatile String configuredKid;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * Fails the startup if the private keys would be stored in plain text without 'jwt.keys.allow-plaintext', or if
+     * the key-encryption key is not a Base64 256 bit key.
+     */
+    @PostConstruct
+    public void checkEncryptionKey() {
+        if (this.encryptionKey.isEmpty()) {
+            if (!this.allowPlaintext) {
+                throw new IllegalStateException("'jwt.keys.encryption-key' is not set; set it (Base64 of 32 random bytes) "
+                        + "or set 'jwt.keys.allow-plaintext=true' to store the signing keys unencrypted (development only)");
+            }
+            LOG.warn("*** 'jwt.keys.encryption-key' is not set: the JWT signing keys are stored UNENCRYPTED in signing_key, "
+                    + "database read access is equivalent to the signing key. Development only, never in production. ***");
+            return;
+        }
+        byte[] key;
+        try {
+            key = Base64.getDecoder().decode(this.encryptionKey);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("'jwt.keys.encryption-key' is not valid Base64", e);
+        }
+        if (key.length != 32) {
+            throw new IllegalStateException(String.format(
+                    "'jwt.keys.encryption-key' has %d bytes, A256GCM needs 32", key.length));
+        }
+    }
+
+    @Override
+    public SigningKey activeKey() {
+        return ring().active();
+    }
+
+    @Override
+    public JWSVerifier verifier(String kid) {
+        KeyRing ring = ring();
+        String key = kid != null ? kid : ring.legacyKid();
+        if (key == null) {
+            return null;
+        }
+        SigningKey signingKey = ring.byKid().get(key);
+        return signingKey != null ? signingKey.verifier() : null;
+    }
+
+    @Override
+    public Map<String, Object> jwks() {
+        return ring().jwks();
+    }
+
+    /**
+     * Reloads the ring to pick up keys rotated by other instances and rotates the signing key once it is older than
+     * 'jwt.keys.rotation-interval-ms'.
+     */
+    @Scheduled(initialDelayString = "${jwt.keys.refresh-interval-ms:60000}",
+            fixedDelayString = "${jwt.keys.refresh-interval-ms:60000}")
+    public void refresh() {
+        List<SigningKeyEntity> keys = this.signingKeyRepository.findAllByOrderByActivatedAtAsc();
+        Instant now = Instant.now();
+        if (this.rotationEnabled && isRotationDue(keys, now) && rotate(now)) {
+            keys = this.signingKeyRepository.findAllByOrderByActivatedAtAsc();
+        }
+        this.keyRing = buildRing(keys, now);
+    }
+
+    private KeyRing ring() {
+        KeyRing ring = this.keyRing;
+        if (ring == null) {
+            ring = load();
+        }
+        return ring;
+    }
+
+    private KeyRing load() {
+        this.loadLock.lock();
+        try {
+            if (this.keyRing == null) {
+                List<SigningKeyEntity> keys = this.signingKeyRepository.findAllByOrderByActivatedAtAsc();
+                if (keys.isEmpty()) {
+                    keys = storeConfiguredKey();
+                }
+                this.keyRing = buildRing(keys, Instant.now());
+            }
+            return this.keyRing;
+        } finally {
+            this.loadLock.unlock();
+        }
+    }
+
+    /**
+     * Seeds an empty key ring with the key pair configured by 'jwt.private.key' and 'jwt.public.key', activated now so
+     * that the first rotation is due one rotation interval later.
+     */
+    private List<SigningKeyEntity> storeConfiguredKey() {
+        JWK configuredKey = JwtKeyLoader.load(this.signingAlgorithm, this.privateKey, this.publicKey);
+        try {
+            String kid = configuredKey.computeThumbprint().toString();
+            this.configuredKid = kid;
+            this.signingKeyRepository.saveAndFlush(SigningKeyEntity.builder()
+                    .kid(kid)
+                    .jwk(seal(toJwk(configuredKey, kid)))
+                    .activatedAt(new Date())
+                    .build());
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Unable to compute the key id of the configured signing key", e);
+        } catch (DataIntegrityViolationException e) {
+            LOG.debug("Configured signing key has been stored by another instance");
+        }
+        return this.signingKeyRepository.findAllByOrderByActivatedAtAsc();
+    }
+
+    private String configuredKid() {
+        String kid = this.configuredKid;
+        if (kid == null) {
+            try {
+                kid = JwtKeyLoader.load(this.signingAlgorithm, this.privateKey, this.publicKey).computeThumbprint().toString();
+            } catch (JOSEException e) {
+                throw new IllegalStateException("Unable to compute the key id of the configured signing key", e);
+            }
+            this.configuredKid = kid;
+        }
+        return kid;
+    }
+
+    private boolean isRotationDue(List<SigningKeyEntity> keys, Instant now) {
+        return !keys.isEmpty()
+                && keys.get(keys.size() - 1).getActivatedAt().toInstant().plusMillis(this.rotationIntervalMillis).isBefore(now);
+    }
+
+    /**
+     * Generates a new key, activated after two refresh intervals so that all instances publish it first, and removes
+     * keys which no longer verify any unexpired token. Instances rotate under a transaction scoped advisory lock and
+     * re-check the key ring after taking it, so only one of them adds a key per rotation interval.
+     *
+     * @return boolean - true if this instance rotated the key
+     */
+    private boolean rotate(Instant now) {
+        String kid = UUID.randomUUID().toString();
+        String sealedKey;
+        try {
+            sealedKey = seal(generateKey(kid));
+        } catch (JOSEException e) {
+            LOG.error("JWT signing key rotation failed", e);
+            return false;
+        }
+        Boolean rotated = new TransactionTemplate(this.transactionManager).execute(status -> {
+            if (!this.signingKeyRepository.tryAdvisoryLock(ROTATION_LOCK)) {
+                return false;
+            }
+            List<SigningKeyEntity> keys = this.signingKeyRepository.findAllByOrderByActivatedAtAsc();
+            if (!isRotationDue(keys, now)) {
+                return false;
+            }
+            this.signingKeyRepository.save(SigningKeyEntity.builder()
+                    .kid(kid)
+                    .jwk(sealedKey)
+                    .activatedAt(Date.from(now.plusMillis(2 * this.refreshIntervalMillis)))
+                    .build());
+            for (int i = 0; i + 1 < keys.size(); i++) {
+                if (isRetired(keys.get(i + 1), now)) {
+                    this.signingKeyRepository.delete(keys.get(i));
+                }
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(rotated)) {
+            LOG.info("Rotated JWT signing key, new key {} ({})", kid, this.signingAlgorithm.getName());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Encrypts the key pair with the key-encryption key, the key id is part of the (authenticated) JWE header.
+     */
+    private String seal(JWK jwk) throws JOSEException {
+        if (this.encryptionKey.isEmpty()) {
+            return jwk.toJSONString();
+        }
+        JWEObject jwe = new JWEObject(new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.A256GCM)
+                .keyID(jwk.getKeyID())
+                .build(), new Payload(jwk.toJSONObject()));
+        jwe.encrypt(new DirectEncrypter(Base64.getDecoder().decode(this.encryptionKey)));
+        return jwe.serialize();
+    }
+
+    private JWK unseal(SigningKeyEntity entity) throws ParseException, JOSEException {
+        String stored = entity.getJwk();
+        if (stored.startsWith("{")) {
+            /* stored before a key-encryption key was configured */
+            return JWK.parse(stored);
+        }
+        if (this.encryptionKey.isEmpty()) {
+            throw new JOSEException("Signing key is encrypted but 'jwt.keys.encryption-key' is not set");
+        }
+        JWEObject jwe = JWEObject.parse(stored);
+        if (!entity.getKid().equals(jwe.getHeader().getKeyID())) {
+            throw new JOSEException("Encrypted signing key belongs to another key id");
+        }
+        jwe.decrypt(new DirectDecrypter(Base64.getDecoder().decode(this.encryptionKey)));
+        return JWK.parse(jwe.getPayload().toJSONObject());
+    }
+
+    private KeyRing buildRing(List<SigningKeyEntity> keys, Instant now) {
+        Map<String, SigningKey> byKid = new HashMap<>();
+        List<JWK> publicKeys = new ArrayList<>();
+        SigningKey active = null;
+        String legacyKid = null;
+        String configuredKid = configuredKid();
+        for (int i = 0; i < keys.size(); i++) {
+            SigningKeyEntity entity = keys.get(i);
+            SigningKeyEntity successor = i + 1 < keys.size() ? keys.get(i + 1) : null;
+            if (successor != null && isRetired(successor, now)) {
+                continue;
+            }
+            try {
+                JWK jwk = unseal(entity);
+                SigningKey signingKey = toSigningKey(jwk);
+                byKid.put(entity.getKid(), signingKey);
+                publicKeys.add(jwk.toPublicJWK());
+                /* rings seeded by earlier versions activated the configured key at the epoch */
+                if (entity.getKid().equals(configuredKid) || (legacyKid == null && entity.getActivatedAt().getTime() == 0L)) {
+                    legacyKid = entity.getKid();
+                }
+                if (active == null || !entity.getActivatedAt().toInstant().isAfter(now)) {
+                    active = signingKey;
+                }
+            } catch (ParseException | JOSEException e) {
+                LOG.error("Ignoring unusable JWT signing key {}", entity.getKid(), e);
+            }
+        }
+        if (active == null) {
+            throw new IllegalStateException("No usable JWT signing key");
+        }
+        return new KeyRing(active, Map.copyOf(byKid), legacyKid, new JWKSet(publicKeys).toJSONObject());
+    }
+
+    /**
+     * A key is retired once its successor has been active for longer than the lifetime of any token.
+     */
+    private boolean isRetired(SigningKeyEntity successor, Instant now) {
+        Duration maxTokenLifetime = Duration.ofSeconds(Math.max(this.accessTokenExpirySeconds, this.refreshTokenExpirySeconds));
+        return successor.getActivatedAt().toInstant().plus(maxTokenLifetime).isBefore(now);
+    }
+
+    private JWK generateKey(String kid) throws JOSEException {
+        JWSAlgorithm algorithm = this.signingAlgorithm.getJwsAlgorithm();
+        return switch (this.signingAlgorithm) {
+            case RS256 -> new RSAKeyGenerator(RSAKeyGenerator.MIN_KEY_SIZE_BITS).keyID(kid).algorithm(algorithm).generate();
+            case ES256 -> new ECKeyGenerator(Curve.P_256).keyID(kid).algorithm(algorithm).generate();
+            case EdDSA -> new OctetKeyPairGenerator(Curve.Ed25519).keyID(kid).algorithm(algorithm).generate();
+        };
+    }
+
+    private static JWK toJwk(JWK jwk, String kid) {
+        if (jwk instanceof RSAKey rsaKey) {
+            return new RSAKey.Builder(rsaKey).keyID(kid).build();
+        }
+        if (jwk instanceof ECKey ecKey) {
+            return new ECKey.Builder(ecKey).keyID(kid).build();
+        }
+        return new OctetKeyPair.Builder((OctetKeyPair) jwk).keyID(kid).build();
+    }
+
+    private SigningKey toSigningKey(JWK jwk) throws JOSEException {
+        JWSAlgorithm algorithm = jwk.getAlgorithm() != null ? JWSAlgorithm.parse(jwk.getAlgorithm().getName())
+                : this.signingAlgorithm.getJwsAlgorithm();
+        JWSVerifier verifier;
+        if (jwk instanceof RSAKey rsaKey) {
+            verifier = new RSASSAVerifier(rsaKey.toPublicJWK());
+        } else if (jwk instanceof ECKey ecKey) {
+            verifier = new ECDSAVerifier(ecKey.toPublicJWK());
+        } else if (jwk instanceof OctetKeyPair octetKeyPair) {
+            verifier = new Ed25519Verifier(octetKeyPair.toPublicJWK());
+        } else {
+            throw new JOSEException("Unsupported key type " + jwk.getKeyType());
+        }
+        JWSHeader header = new JWSHeader.Builder(algorithm).keyID(jwk.getKeyID()).build();
+        return new SigningKey(jwk.getKeyID(), header, new DefaultJWSSignerFactory().createJWSSigner(jwk, algorithm), verifier);
+    }
+
+    /**
+     * @param active    - SigningKey - key signing new tokens
+     * @param byKid     - Map - keys accepted for verification
+     * @param legacyKid - String - key id of the configured key, used for tokens without 'kid' header
+     * @param jwks      - Map - public JWK set
+     */
+    private record KeyRing(SigningKey active, Map<String, SigningKey> byKid, String legacyKid, Map<String, Object> jwks) {
+    }
+}
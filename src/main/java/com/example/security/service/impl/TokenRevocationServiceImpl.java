@@ -0,0 +1,165 @@
+package com.example.security.service.impl;
+
+import com.example.security.cache.RevocationBloomFilter;
+import com.example.security.entity.RevokedTokenEntity;
+import com.example.security.repository.RevokedTokenRepository;
+import com.example.security.service.TokenRevocationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revocation list of token ids ('jti') stored in the revoked_token table.
+ * Lookups go through an in-memory Bloom filter first, the table is only queried when the filter reports a possible
+ * match. Until the filter has been loaded on startup every lookup goes to the table.
+ * Revocations made by other instances are polled into the filter every 'jwt.revocation.sync-interval-ms', so a token
+ * revoked elsewhere is rejected here within seconds rather than after the next rebuild.
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    private static final int SYNC_OVERLAP_SECONDS = 30;
+
+    @Autowired
+    RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${jwt.revocation.false-positive-probability:0.001}")
+    private double falsePositiveProbability;
+
+    @Value("${jwt.revocation.load-page-size:1000}")
+    private int loadPageSize;
+
+    /**
+     * Filter answering lookups, null until loaded.
+     */
+    private volatile RevocationBloomFilter filter;
+
+    /**
+     * Filter being loaded from the table, revocations are added to it as well so that none is lost on swap.
+     */
+    private volatile RevocationBloomFilter rebuilding;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * Start (epoch ms) of the last sync or of the initial load, 0 before
+     */
+    private volatile long lastSyncMillis;
+
+    @Override
+    public boolean isRevoked(String jti) {
+        RevocationBloomFilter current = this.filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
+        return this.revokedTokenRepository.existsById(jti);
+    }
+
+    @Override
+    public boolean revoke(String jti, Instant expiresAt) {
+        boolean revoked = this.revokedTokenRepository.insertIfAbsent(jti, Date.from(expiresAt)) == 1;
+        /* 'rebuilding' has to be read before 'filter', see rebuild() */
+        RevocationBloomFilter next = this.rebuilding;
+        if (next != null) {
+            next.put(jti);
+        }
+        RevocationBloomFilter current = this.filter;
+        if (current != null) {
+            current.put(jti);
+        }
+        return revoked;
+    }
+
+    /**
+     * Adds the revocations since the last sync, plus SYNC_OVERLAP_SECONDS for clock skew and late commits, to the
+     * filter (and to the one being rebuilt).
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.sync-interval-ms:5000}",
+            fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void syncRecent() {
+        if (this.filter == null) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        double windowSeconds = (started - this.lastSyncMillis) / 1000.0 + SYNC_OVERLAP_SECONDS;
+        List<String> revokedJtis = this.revokedTokenRepository.findJtiRevokedWithin(windowSeconds);
+        /* 'rebuilding' has to be read before 'filter', see rebuild() */
+        RevocationBloomFilter next = this.rebuilding;
+        RevocationBloomFilter current = this.filter;
+        for (String jti : revokedJtis) {
+            if (next != null) {
+                next.put(jti);
+            }
+            current.put(jti);
+        }
+        this.lastSyncMillis = started;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Bloom filters cannot forget, so expired revocations are purged from the table and the filter is rebuilt.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}")
+    public void purgeExpiredAndRebuild() {
+        int purged = this.revokedTokenRepository.deleteExpired(new Date());
+        LOG.debug("Purged {} expired token revocations", purged);
+        rebuild();
+    }
+
+    /**
+     * Loads all unexpired revocations page by page into a new filter and swaps it in. Revocations arriving meanwhile
+     * are put into the new filter by revoke().
+     */
+    void rebuild() {
+        this.rebuildLock.lock();
+        try {
+            RevocationBloomFilter next = new RevocationBloomFilter(this.expectedRevocations, this.falsePositiveProbability);
+            this.rebuilding = next;
+            if (this.lastSyncMillis == 0L) {
+                this.lastSyncMillis = System.currentTimeMillis();
+            }
+            Date now = new Date();
+            Pageable page = PageRequest.of(0, this.loadPageSize, Sort.by("jti"));
+            String lastJti = "";
+            long loaded = 0;
+            Slice<RevokedTokenEntity> slice;
+            do {
+                slice = this.revokedTokenRepository.findByJtiGreaterThanAndExpiresAtAfter(lastJti, now, page);
+                for (RevokedTokenEntity revokedToken : slice) {
+                    next.put(revokedToken.getJti());
+                    lastJti = revokedToken.getJti();
+                    loaded++;
+                }
+            } while (slice.hasNext());
+            this.filter = next;
+            this.rebuilding = null;
+            LOG.info("Loaded {} token revocations into the revocation filter", loaded);
+        } finally {
+            this.rebuildLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.security.service.impl;
+
+import com.example.security.config.JwtRevocationValidator;
+import com.example.security.config.RoleAuthenticationConverter;
+import com.example.security.config.SigningKeyDecoders;
+import com.example.security.config.TokenUseValidator;
+import com.example.security.entity.UserEntity;
+import com.example.security.exception.BadRequestException;
+import com.example.security.model.JwtAuthenticationResponse;
+import com.example.security.service.SigningKeyService;
+import com.example.security.service.TokenRevocationService;
+import com.example.security.service.TokenService;
+import com.example.security.service.UserDetailsService;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Mints access and refresh tokens.
+ * Tokens are signed with the active key of the signing key ring, whose JOSE header (with 'kid') and signer are
+ * pre-built, so that issuing a token only builds the per-user claims and signs them.
+ * Access tokens are short-lived; refresh tokens are exchanged for a new token pair through the refresh grant, which
+ * revokes the presented refresh token ('jti') on use. All tokens descending from one login share a token family
+ * ('fam'); presenting a refresh token a second time revokes the whole family, because one of the two holders is not
+ * its owner.
+ */
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final String ISSUER = "self";
+
+    private final SigningKeyService signingKeyService;
+
+    private final NimbusJwtDecoder refreshTokenDecoder;
+
+    private final long accessTokenExpirySeconds;
+
+    private final long refreshTokenExpirySeconds;
+
+    @Autowired
+    UserDetailsService userDetailsService;
+
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    public TokenServiceImpl(SigningKeyService signingKeyService,
+                            JwtRevocationValidator jwtRevocationValidator,
+                            @Value("${jwt.access-token.expiry-seconds:900}") long accessTokenExpirySeconds,
+                            @Value("${jwt.refresh-token.expiry-seconds:86400}") long refreshTokenExpirySeconds) {
+        this.signingKeyService = signingKeyService;
+        this.refreshTokenDecoder = SigningKeyDecoders.create(signingKeyService);
+        this.refreshTokenDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefault(), TokenUseValidator.refreshToken(), jwtRevocationValidator));
+        this.accessTokenExpirySeconds = accessTokenExpirySeconds;
+        this.refreshTokenExpirySeconds = refreshTokenExpirySeconds;
+    }
+
+    @Override
+    public JwtAuthenticationResponse issueTokens(UserEntity user) {
+        return issueTokens(user, UUID.randomUUID().toString());
+    }
+
+    private JwtAuthenticationResponse issueTokens(UserEntity user, String family) {
+        long now = System.currentTimeMillis();
+        JWTClaimsSet accessClaims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .issueTime(new Date(now))
+                .expirationTime(new Date(now + this.accessTokenExpirySeconds * 1000L))
+                .subject(user.getUsername())
+                .jwtID(UUID.randomUUID().toString())
+                .claim(RoleAuthenticationConverter.SCOPE_CLAIM, user.getRoles().getScope())
+                .claim(TokenUseValidator.TOKEN_USE_CLAIM, TokenUseValidator.ACCESS)
+                .claim(JwtRevocationValidator.FAMILY_CLAIM, family)
+                .build();
+        JWTClaimsSet refreshClaims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .issueTime(new Date(now))
+                .expirationTime(new Date(now + this.refreshTokenExpirySeconds * 1000L))
+                .subject(user.getUsername())
+                .jwtID(UUID.randomUUID().toString())
+                .claim(TokenUseValidator.TOKEN_USE_CLAIM, TokenUseValidator.REFRESH)
+                .claim(JwtRevocationValidator.FAMILY_CLAIM, family)
+                .build();
+        return new JwtAuthenticationResponse(sign(accessClaims), sign(refreshClaims), this.accessTokenExpirySeconds);
+    }
+
+    /**
+     * The refresh token is revoked with a conditional insert, so that of two concurrent requests presenting the same
+     * token only one gets a new token pair.
+     */
+    @Override
+    public JwtAuthenticationResponse refresh(String refreshToken) throws BadRequestException {
+        Jwt jwt = decodeRefreshToken(refreshToken);
+        String family = jwt.getClaimAsString(JwtRevocationValidator.FAMILY_CLAIM);
+        UserEntity user;
+        try {
+            user = (UserEntity) this.userDetailsService.loadUserByUsername(jwt.getSubject());
+        } catch (UsernameNotFoundException e) {
+            throw new BadRequestException("Invalid refresh token: unknown user");
+        }
+        if (!this.tokenRevocationService.revoke(jwt.getId(), jwt.getExpiresAt())) {
+            revokeFamily(family);
+            throw new BadRequestException("Invalid refresh token: already used");
+        }
+        return issueTokens(user, family != null ? family : jwt.getId());
+    }
+
+    @Override
+    public void revoke(Jwt accessToken, String refreshToken) throws BadRequestException {
+        if (StringUtils.isNotBlank(refreshToken)) {
+            Jwt jwt = decodeRefreshToken(refreshToken);
+            if (!jwt.getSubject().equals(accessToken.getSubject())) {
+                throw new BadRequestException("Refresh token belongs to another user");
+            }
+            this.tokenRevocationService.revoke(jwt.getId(), jwt.getExpiresAt());
+            revokeFamily(jwt.getClaimAsString(JwtRevocationValidator.FAMILY_CLAIM));
+        }
+        if (accessToken.getId() != null) {
+            this.tokenRevocationService.revoke(accessToken.getId(), accessToken.getExpiresAt());
+        }
+    }
+
+    /**
+     * A family stays revoked until the last token that may have been issued in it has expired.
+     */
+    private void revokeFamily(String family) {
+        if (family != null) {
+            this.tokenRevocationService.revoke(family, Instant.now().plusSeconds(Math.max(this.accessTokenExpirySeconds,
+                    this.refreshTokenExpirySeconds)));
+        }
+    }
+
+    private Jwt decodeRefreshToken(String refreshToken) throws BadRequestException {
+        try {
+            Jwt jwt = this.refreshTokenDecoder.decode(refreshToken);
+            if (jwt.getId() == null || jwt.getExpiresAt() == null) {
+                throw new BadRequestException("Invalid refresh token");
+            }
+            return jwt;
+        } catch (JwtException e) {
+            throw new BadRequestException("Invalid refresh token: " + e.getMessage());
+        }
+    }
+
+    private String sign(JWTClaimsSet claims) {
+        SigningKeyService.SigningKey signingKey = this.signingKeyService.activeKey();
+        SignedJWT jwt = new SignedJWT(signingKey.header(), claims);
+        try {
+            jwt.sign(signingKey.signer());
+        } catch (JOSEException e) {
+            throw new JwtEncodingException("Unable to sign token for " + claims.getSubject(), e);
+        }
+        return jwt.serialize();
+    }
+}
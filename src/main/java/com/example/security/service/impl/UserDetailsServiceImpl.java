@@ -1,7 +1,7 @@
 package com.example.security.service.impl;
 
+import com.example.security.cache.UserCache;
 import com.example.security.entity.UserEntity;
-import com.example.security.repository.UserRepository;
 import com.example.security.service.UserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,11 +14,11 @@ import java.util.Optional;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Autowired
-    UserRepository userRepository;
+    UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<UserEntity> user = Optional.ofNullable(userRepository.findByUsername(username));
+        Optional<UserEntity> user = Optional.ofNullable(this.userCache.findByUsername(username));
         if (user.isEmpty()) {
             throw new UsernameNotFoundException(username);
         }
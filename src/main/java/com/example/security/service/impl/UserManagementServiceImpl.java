@@ -3,6 +3,8 @@ package com.example.security.service.impl;
 import com.example.security.constant.AccountConstants;
 import com.example.security.deserializer.UserDetailsDeserializer;
 import com.example.security.entity.UserEntity;
+import com.example.security.event.UserDeletedEvent;
+import com.example.security.event.UserRegisteredEvent;
 import com.example.security.exception.ResourceNotFoundException;
 import com.example.security.exception.UserAlreadyExistAuthenticationException;
 import com.example.security.model.SignUpRequest;
@@ -10,6 +12,7 @@ import com.example.security.model.User;
 import com.example.security.repository.UserRepository;
 import com.example.security.service.UserManagementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +31,9 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
     @Override
     public List<User> getAllUsers() {
         return this.userDetailsDeserializer.deserializeAccount(this.userRepository.findAll());
@@ -42,6 +48,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         UserEntity user = buildUser(signUpRequest);
         user = this.userRepository.save(user);
         this.userRepository.flush();
+        this.applicationEventPublisher.publishEvent(new UserRegisteredEvent(user.getUsername()));
         return User.builder().username(user.getUsername()).password(user.getPassword()).build();
     }
 
@@ -53,6 +60,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         }
         this.userRepository.deleteByUsername(username);
         this.userRepository.flush();
+        this.applicationEventPublisher.publishEvent(new UserDeletedEvent(username));
     }
 
     private UserEntity buildUser(final SignUpRequest signUpRequest) {
@@ -0,0 +1,7 @@
+-- Revocation list of token ids ('jti'), rows can be deleted once expires_at has passed
+create table if not exists revoked_token (
+    jti        varchar(64) primary key,
+    expires_at timestamp   not null
+);
+
+create index if not exists revoked_token_expires_at_idx on revoked_token (expires_at);
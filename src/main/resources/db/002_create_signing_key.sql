@@ -0,0 +1,6 @@
+-- JWT signing key ring shared by all instances; the latest activated key signs, retired keys are deleted
+create table if not exists signing_key (
+    kid          varchar(64) primary key,
+    jwk          text        not null,
+    activated_at timestamp   not null
+);
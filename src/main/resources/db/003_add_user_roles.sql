@@ -0,0 +1,2 @@
+-- Roles of a user as space separated role names (USER, TELLER, ADMIN), equal to the 'scope' claim of its tokens
+alter table user_table add column if not exists roles varchar(64) not null default 'USER';
@@ -0,0 +1,30 @@
+-- Append-only account ledger replacing the account.transactions jsonb array
+create table if not exists account_event (
+    id              bigserial primary key,
+    acc_no          integer     not null,
+    type            varchar(32) not null,
+    ts              timestamp   not null,
+    balance         bigint,
+    transaction_amt bigint,
+    error           varchar(255)
+);
+
+create index if not exists account_event_acc_no_ts_idx on account_event (acc_no, ts);
+
+-- Migrates the events of accounts which have no ledger rows yet (safe to re-run)
+insert into account_event (acc_no, type, ts, balance, transaction_amt, error)
+select a.acc_no,
+       e ->> 'type',
+       (e ->> 'ts')::timestamp,
+       (e ->> 'balance')::bigint,
+       (e ->> 'transactionAmt')::bigint,
+       e ->> 'error'
+from account a
+         cross join lateral jsonb_array_elements(a.transactions) e
+where a.transactions is not null
+  and jsonb_typeof(a.transactions) = 'array'
+  and not exists (select 1 from account_event ae where ae.acc_no = a.acc_no)
+order by a.acc_no, (e ->> 'ts')::timestamp;
+
+-- The jsonb column is no longer written; drop it once the migration has been verified:
+-- alter table account drop column transactions;
@@ -0,0 +1,2 @@
+-- Keyset pagination and streaming of accounts in account number order
+create index if not exists account_acc_no_idx on account (acc_no);
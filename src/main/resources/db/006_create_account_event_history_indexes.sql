@@ -0,0 +1,6 @@
+-- Keyset pagination of the transaction history, most recent first, optionally filtered by event type
+create index if not exists account_event_acc_no_ts_id_idx on account_event (acc_no, ts desc, id desc);
+create index if not exists account_event_acc_no_type_ts_id_idx on account_event (acc_no, type, ts desc, id desc);
+
+-- Superseded by account_event_acc_no_ts_id_idx
+drop index if exists account_event_acc_no_ts_idx;
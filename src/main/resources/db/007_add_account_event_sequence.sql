@@ -0,0 +1,26 @@
+-- Per-account event sequence numbers and the last-event snapshot of every account.
+-- Existing histories are numbered in (ts, id) order; events migrated from the jsonb array may share a timestamp.
+alter table account_event add column if not exists seq bigint;
+
+update account_event e
+set seq = numbered.seq
+from (select id, row_number() over (partition by acc_no order by ts, id) as seq from account_event) numbered
+where e.id = numbered.id
+  and e.seq is null;
+
+alter table account_event alter column seq set not null;
+
+create unique index if not exists account_event_acc_no_seq_idx on account_event (acc_no, seq desc);
+create index if not exists account_event_acc_no_type_seq_idx on account_event (acc_no, type, seq desc);
+
+-- Superseded by account_event_acc_no_type_seq_idx
+drop index if exists account_event_acc_no_type_ts_id_idx;
+
+alter table account add column if not exists last_event_seq bigint not null default 0;
+alter table account add column if not exists last_event_ts timestamp;
+
+update account a
+set last_event_seq = latest.seq,
+    last_event_ts  = latest.ts
+from (select distinct on (acc_no) acc_no, seq, ts from account_event order by acc_no, seq desc) latest
+where a.acc_no = latest.acc_no;
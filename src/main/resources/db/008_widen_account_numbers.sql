@@ -0,0 +1,11 @@
+-- Account numbers become bigint and are handed out in blocks by AccountNumberAllocator.
+-- The increment of account_no_seq is the block size ('account.number.block-size').
+-- Numbers drawn at random so far have five digits, so the sequence starts above them.
+alter table account alter column acc_no type bigint;
+alter table account_event alter column acc_no type bigint;
+
+create sequence if not exists account_no_seq start with 100000 increment by 50;
+
+-- Surrogate ids are allocated in blocks of 50 by Hibernate's pooled optimizer (allocationSize = 50)
+alter sequence account_id_seq increment by 50;
+alter sequence user_table_id_seq increment by 50;
@@ -0,0 +1,11 @@
+-- Responses of requests carrying an Idempotency-Key header, rows can be deleted once expires_at has passed
+create table if not exists idempotency_key (
+    idem_key     varchar(512) primary key,
+    request_hash varchar(64)  not null,
+    status       integer      not null,
+    content_type varchar(255),
+    body         text,
+    expires_at   timestamp    not null
+);
+
+create index if not exists idempotency_key_expires_at_idx on idempotency_key (expires_at);
@@ -0,0 +1,20 @@
+-- Read model of the accounts, kept up to date asynchronously by AccountSummaryProjector.
+-- Events of an account are numbered 1, 2, 3, ... so event_count is also the sequence number of the last event; a row
+-- is only ever replaced by one with a higher event_count.
+create table if not exists account_summary (
+    acc_no          bigint primary key,
+    holder_name     varchar(255),
+    branch          varchar(255),
+    balance         bigint,
+    event_count     bigint      not null,
+    last_event_type varchar(32),
+    last_event_ts   timestamp,
+    projected_at    timestamp   not null
+);
+
+-- Initial projection of the existing accounts (safe to re-run), later catch-ups: --rebuild-account-summary
+insert into account_summary (acc_no, holder_name, branch, balance, event_count, last_event_type, last_event_ts, projected_at)
+select a.acc_no, a.holder_name, a.branch, a.balance, a.last_event_seq, e.type, a.last_event_ts, now()
+from account a
+         left join account_event e on e.acc_no = a.acc_no and e.seq = a.last_event_seq
+on conflict (acc_no) do nothing;
@@ -0,0 +1,4 @@
+-- Idempotency keys are claimed (state PENDING) before the request runs and completed with its response afterwards,
+-- so that a duplicate on any instance finds the claim. Existing rows all hold a response.
+alter table idempotency_key add column if not exists state varchar(16) not null default 'COMPLETED';
+alter table idempotency_key alter column status drop not null;
@@ -0,0 +1,4 @@
+-- Time of the revocation, instances poll the revocations of the last seconds into their Bloom filter
+alter table revoked_token add column if not exists revoked_at timestamp not null default now();
+
+create index if not exists revoked_token_revoked_at_idx on revoked_token (revoked_at);
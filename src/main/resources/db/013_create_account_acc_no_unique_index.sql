@@ -0,0 +1,4 @@
+-- Account numbers handed out by AccountNumberAllocator (account_no_seq starts at 100000) must be unique.
+-- Numbers drawn at random before are left out, they were never checked for uniqueness.
+-- Supersedes account_acc_no_idx for those numbers; it is kept for the older ones.
+create unique index if not exists account_acc_no_allocated_idx on account (acc_no) where acc_no >= 100000;
@@ -0,0 +1,18 @@
+-- Every committed change of an account row is announced on the 'account_changed' channel (payload: acc_no), whichever
+-- instance or variant (servlet, reactive, SQL) made it. AccountChangeNotificationListener turns the notifications into
+-- AccountChangedEvents, which invalidate the account cache and queue the account_summary refresh.
+create or replace function notify_account_changed() returns trigger as
+$$
+begin
+    perform pg_notify('account_changed', coalesce(new.acc_no, old.acc_no)::text);
+    return null;
+end;
+$$ language plpgsql;
+
+drop trigger if exists account_changed_notify on account;
+
+create trigger account_changed_notify
+    after insert or update or delete
+    on account
+    for each row
+execute function notify_account_changed();
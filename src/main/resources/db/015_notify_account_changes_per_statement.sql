@@ -0,0 +1,66 @@
+-- Replaces the row-level trigger of 014: NOTIFY makes the committing transaction take a server-wide lock, so it is only
+-- sent for writes which no local AccountChangedEvent covers, once per statement with the de-duplicated account numbers
+-- (payload: acc_no list separated by ',', at most 300 per notification to stay below the 8000 byte payload limit).
+-- The servlet application marks its pooled connections with 'set account.notify_changes = off'
+-- (spring.datasource.hikari.connection-init-sql) and publishes AccountChangedEvents itself; writes of the reactive
+-- variant and of other SQL clients still notify.
+drop trigger if exists account_changed_notify on account;
+
+drop function if exists notify_account_changed();
+
+create or replace function notify_account_changes() returns trigger as
+$$
+declare
+    payload text;
+begin
+    if coalesce(nullif(current_setting('account.notify_changes', true), ''), 'on') = 'off' then
+        return null;
+    end if;
+    if tg_op = 'DELETE' then
+        for payload in
+            select string_agg(acc_no::text, ',')
+            from (select acc_no, (dense_rank() over (order by acc_no) - 1) / 300 as part
+                  from (select distinct acc_no from old_rows) changed) parts
+            group by part
+        loop
+            perform pg_notify('account_changed', payload);
+        end loop;
+    else
+        for payload in
+            select string_agg(acc_no::text, ',')
+            from (select acc_no, (dense_rank() over (order by acc_no) - 1) / 300 as part
+                  from (select distinct acc_no from new_rows) changed) parts
+            group by part
+        loop
+            perform pg_notify('account_changed', payload);
+        end loop;
+    end if;
+    return null;
+end;
+$$ language plpgsql;
+
+-- Transition tables are only allowed on triggers for a single event
+drop trigger if exists account_inserted_notify on account;
+drop trigger if exists account_updated_notify on account;
+drop trigger if exists account_deleted_notify on account;
+
+create trigger account_inserted_notify
+    after insert
+    on account
+    referencing new table as new_rows
+    for each statement
+execute function notify_account_changes();
+
+create trigger account_updated_notify
+    after update
+    on account
+    referencing new table as new_rows
+    for each statement
+execute function notify_account_changes();
+
+create trigger account_deleted_notify
+    after delete
+    on account
+    referencing old table as old_rows
+    for each statement
+execute function notify_account_changes();
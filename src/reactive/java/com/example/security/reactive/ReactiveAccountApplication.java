@@ -0,0 +1,32 @@
+package com.example.security.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Reactive variant of the account and transaction APIs (WebFlux, R2DBC), built with the 'reactive' Maven profile.
+ * It serves the same /api/account and /api/transaction requests against the same database as the servlet application
+ * and accepts the access tokens issued by it, verified against its /.well-known/jwks.json.
+ * Only classes of this package are scanned and all of them are bound to the 'reactive' Spring profile, so that the
+ * servlet application ignores them when both are on the classpath.
+ */
+@SpringBootApplication(scanBasePackages = "com.example.security.reactive",
+        exclude = {DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+                HibernateJpaAutoConfiguration.class})
+@EnableScheduling
+public class ReactiveAccountApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveAccountApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
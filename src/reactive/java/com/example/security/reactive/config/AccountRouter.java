@@ -0,0 +1,63 @@
+package com.example.security.reactive.config;
+
+import com.example.security.exception.BadRequestException;
+import com.example.security.exception.ExceptionResponse;
+import com.example.security.exception.InsufficientAccountBalanceException;
+import com.example.security.exception.ResourceNotFoundException;
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.handler.AccountHandler;
+import com.example.security.reactive.handler.TransactionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+
+/**
+ * Routes of the account and transaction APIs; errors are answered with the status and ExceptionResponse body
+ * ExceptionHandlerControllerAdvice gives them in the servlet variant.
+ */
+@Configuration
+@Profile(ReactiveAccountApplication.PROFILE)
+public class AccountRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> accountRoutes(AccountHandler accountHandler, TransactionHandler transactionHandler) {
+        return RouterFunctions.route()
+                .path("/api/account", builder -> builder
+                        .GET("", accountHandler::getAccounts)
+                        .POST("", contentType(MediaType.APPLICATION_JSON), accountHandler::createAccount)
+                        .GET("/{accountNumber}", accountHandler::getAccount)
+                        .PUT("", accountHandler::updateAccountBranch)
+                        .DELETE("", accountHandler::deleteAccount))
+                .path("/api/transaction", builder -> builder
+                        .PUT("/deposit", transactionHandler::deposit)
+                        .PUT("/withdraw", transactionHandler::withdraw)
+                        .GET("/history", transactionHandler::history))
+                .onError(BadRequestException.class, (e, request) -> error(request, HttpStatus.BAD_REQUEST, e.getMessage()))
+                .onError(InsufficientAccountBalanceException.class, (e, request) -> error(request, HttpStatus.BAD_REQUEST, e.getMessage()))
+                .onError(ServerWebInputException.class, (e, request) -> error(request, HttpStatus.BAD_REQUEST, e.getReason()))
+                .onError(ResourceNotFoundException.class, (e, request) -> error(request, HttpStatus.NOT_FOUND, e.getMessage()))
+                .build();
+    }
+
+    private static Mono<ServerResponse> error(ServerRequest request, HttpStatus status, String message) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ExceptionResponse.builder()
+                        .errorMessage(message)
+                        .requestedURI(request.path())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.security.reactive.config;
+
+import com.example.security.config.JwtRevocationValidator;
+import com.example.security.config.RoleAuthenticationConverter;
+import com.example.security.config.TokenUseValidator;
+import com.example.security.constant.SigningAlgorithm;
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.service.ReactiveTokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resource server security of the reactive variant: every API requires an access token issued by the servlet
+ * application (/api/auth/token), mapped to the same role authorities as there. Basic auth is not offered.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@Profile(ReactiveAccountApplication.PROFILE)
+public class ReactiveSecurityConfig {
+
+    private static final String[] PUBLIC_PATHS = {
+            "/actuator/health"
+    };
+
+    @Autowired
+    ReactiveTokenRevocationService tokenRevocationService;
+
+    /**
+     * JWK set of the servlet application
+     */
+    @Value("${jwt.reactive.jwk-set-uri}")
+    private String jwkSetUri;
+
+    /**
+     * Algorithm the servlet application signs with, RS256 or ES256 (EdDSA is not supported by NimbusReactiveJwtDecoder)
+     */
+    @Value("${jwt.signing.algorithm:RS256}")
+    private SigningAlgorithm signingAlgorithm;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .authorizeExchange(exchange -> exchange.pathMatchers(PUBLIC_PATHS).permitAll()
+                        .anyExchange().authenticated())
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(
+                        new ReactiveJwtAuthenticationConverterAdapter(new RoleAuthenticationConverter()))))
+                .build();
+    }
+
+    /**
+     * Verifies tokens with the keys published by the servlet application, rejects refresh tokens and checks the
+     * revocation list it maintains (through the same Bloom filter as there, see ReactiveTokenRevocationService).
+     *
+     * @return ReactiveJwtDecoder
+     */
+    @Bean
+    ReactiveJwtDecoder reactiveJwtDecoder() {
+        if (this.signingAlgorithm == SigningAlgorithm.EdDSA) {
+            throw new IllegalStateException("The reactive variant verifies RS256 and ES256 tokens only");
+        }
+        NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withJwkSetUri(this.jwkSetUri)
+                .jwsAlgorithm(SignatureAlgorithm.from(this.signingAlgorithm.getName()))
+                .build();
+        jwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(),
+                TokenUseValidator.accessToken()));
+        return token -> jwtDecoder.decode(token)
+                .flatMap(jwt -> jwt.getId() == null ? Mono.just(jwt) : this.tokenRevocationService
+                        .isRevoked(jwt.getId(), jwt.getClaimAsString(JwtRevocationValidator.FAMILY_CLAIM))
+                        .flatMap(revoked -> revoked ? Mono.error(new BadJwtException("The token has been revoked")) : Mono.just(jwt)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.security.reactive.entity;
+
+import com.example.security.model.Transaction;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the account_event ledger as read by R2DBC, the reactive counterpart of AccountEventEntity.
+ */
+@Table("account_event")
+public record AccountEventRow(@Id Long id, Long accNo, Long seq, String type, LocalDateTime ts, Long balance,
+                              Long transactionAmt, String error) {
+
+    public Transaction toTransaction() {
+        return Transaction.builder()
+                .type(this.type)
+                .ts(this.ts.toString())
+                .balance(this.balance)
+                .transactionAmt(this.transactionAmt)
+                .error(this.error)
+                .build();
+    }
+}
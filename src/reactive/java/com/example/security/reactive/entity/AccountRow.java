@@ -0,0 +1,35 @@
+package com.example.security.reactive.entity;
+
+import com.example.security.model.Account;
+import com.example.security.model.Transaction;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Row of the account table as read by R2DBC, the reactive counterpart of AccountEntity.
+ * Columns map to the snake_case form of the component names.
+ */
+@Table("account")
+public record AccountRow(@Id Long id, Long accNo, String holderName, LocalDateTime startDate, String branch,
+                         Long balance, Long lastEventSeq, LocalDateTime lastEventTs, String createdBy,
+                         String modifiedBy, LocalDateTime createdDate, LocalDateTime modifiedDate) {
+
+    /**
+     * @param transactions - List - events returned with the account, null to leave them out
+     * @return Account - API model of the account
+     */
+    public Account toAccount(List<Transaction> transactions) {
+        return Account.builder()
+                .accountNumber(this.accNo)
+                .accountHolderName(this.holderName)
+                .accountStartDate(this.startDate != null ? Timestamp.valueOf(this.startDate) : null)
+                .accountBranch(this.branch)
+                .accountBalance(this.balance)
+                .accountTransactions(transactions)
+                .build();
+    }
+}
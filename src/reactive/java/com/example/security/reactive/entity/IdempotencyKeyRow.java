@@ -0,0 +1,17 @@
+package com.example.security.reactive.entity;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Row of the idempotency_key table as read by R2DBC, the reactive counterpart of IdempotencyKeyEntity.
+ */
+public record IdempotencyKeyRow(String requestHash, String state, Integer status, String contentType, String body) {
+
+    public boolean isCompleted() {
+        return "COMPLETED".equals(this.state);
+    }
+
+    public byte[] bodyBytes() {
+        return this.body != null ? this.body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.security.reactive.filter;
+
+import com.example.security.exception.ExceptionResponse;
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.entity.IdempotencyKeyRow;
+import com.example.security.reactive.repository.ReactiveIdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reactive counterpart of IdempotencyFilter on the same idempotency_key table: a deposit or withdrawal carrying an
+ * 'Idempotency-Key' header runs at most once per key, user and path within 'idempotency.ttl-seconds', whichever
+ * variant or instance receives it; a retry gets the stored response of the first run.
+ * The key is claimed before the request runs and the response is stored on the claimed row before it is written. A
+ * duplicate arriving while the first request is still running polls the row every 'idempotency.poll-interval-ms' for
+ * its response, up to 'idempotency.wait-timeout-ms' (409). 5xx responses and failed requests are not stored, their
+ * claim is released. Keys and request hashes are built like in the servlet variant, so a retry may go to either.
+ * Runs after the security filter chain, so that the key is scoped to the authenticated user.
+ */
+@Component
+@Order(0)
+@Profile(ReactiveAccountApplication.PROFILE)
+public class IdempotencyWebFilter implements WebFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyWebFilter.class);
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Autowired
+    ReactiveIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final List<String> paths;
+
+    private final Duration ttl;
+
+    private final long waitTimeoutMillis;
+
+    private final Duration pollInterval;
+
+    @Autowired
+    public IdempotencyWebFilter(@Value("${idempotency.enabled:true}") boolean enabled,
+                                @Value("${idempotency.paths:/api/transaction/deposit,/api/transaction/withdraw,/api/transaction/transfer}") List<String> paths,
+                                @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                                @Value("${idempotency.wait-timeout-ms:30000}") long waitTimeoutMillis,
+                                @Value("${idempotency.poll-interval-ms:100}") long pollIntervalMillis) {
+        this.enabled = enabled;
+        this.paths = paths;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.pollInterval = Duration.ofMillis(pollIntervalMillis);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String idempotencyKey = request.getHeaders().getFirst(IDEMPOTENCY_KEY_HEADER);
+        if (!this.enabled || idempotencyKey == null || HttpMethod.GET.equals(request.getMethod())
+                || !this.paths.contains(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return writeError(exchange, HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY_HEADER + " must have 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = requestHash(request);
+        long deadline = System.currentTimeMillis() + this.waitTimeoutMillis;
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(principal -> claimOrReplay(exchange, chain,
+                        principal + ':' + request.getPath().value() + ':' + idempotencyKey, requestHash, deadline));
+    }
+
+    /**
+     * Runs the request if the key can be claimed, otherwise replays the stored response or polls the claim of the
+     * request still running until its response is stored or the deadline has passed.
+     */
+    private Mono<Void> claimOrReplay(ServerWebExchange exchange, WebFilterChain chain, String key, String requestHash,
+                                     long deadline) {
+        LocalDateTime now = LocalDateTime.now();
+        return this.idempotencyKeyRepository.claim(key, requestHash, now.plus(this.ttl), now)
+                .flatMap(claimed -> claimed ? execute(exchange, chain, key, requestHash)
+                        : this.idempotencyKeyRepository.findByKey(key)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(row -> {
+                            if (row.isEmpty()) {
+                                /* the claim has been released or has expired in the meantime, claim again */
+                                return claimOrReplay(exchange, chain, key, requestHash, deadline);
+                            }
+                            if (row.get().isCompleted()) {
+                                return replay(exchange, row.get(), requestHash);
+                            }
+                            if (System.currentTimeMillis() >= deadline) {
+                                return writeError(exchange, HttpStatus.CONFLICT, "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                            }
+                            return Mono.delay(this.pollInterval)
+                                    .then(Mono.defer(() -> claimOrReplay(exchange, chain, key, requestHash, deadline)));
+                        }));
+    }
+
+    /**
+     * Runs the request on the claimed key and stores its response before writing it. A response which cannot be
+     * stored leaves the claim pending, so that retries are answered with 409 instead of running the request again.
+     */
+    private Mono<Void> execute(ServerWebExchange exchange, WebFilterChain chain, String key, String requestHash) {
+        AtomicBoolean stored = new AtomicBoolean();
+        ServerHttpResponse response = exchange.getResponse();
+        ServerHttpResponseDecorator storingResponse = new ServerHttpResponseDecorator(response) {
+
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return DataBufferUtils.join(body)
+                        .map(buffer -> {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            DataBufferUtils.release(buffer);
+                            return bytes;
+                        })
+                        .defaultIfEmpty(new byte[0])
+                        .flatMap(bytes -> store(key, requestHash, getStatusCode(), getHeaders().getContentType(), bytes, stored)
+                                .then(super.writeWith(Mono.just(bufferFactory().wrap(bytes)))));
+            }
+        };
+        return chain.filter(exchange.mutate().response(storingResponse).build())
+                .then(Mono.defer(() -> stored.get() ? Mono.<Void>empty() : release(key)))
+                .onErrorResume(e -> (stored.get() ? Mono.<Void>empty() : release(key)).then(Mono.error(e)))
+                .doOnCancel(() -> {
+                    if (!stored.get()) {
+                        release(key).subscribe();
+                    }
+                });
+    }
+
+    private Mono<Void> store(String key, String requestHash, HttpStatusCode statusCode, MediaType contentType,
+                             byte[] body, AtomicBoolean stored) {
+        int status = statusCode != null ? statusCode.value() : HttpStatus.OK.value();
+        if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            return Mono.empty();
+        }
+        stored.set(true);
+        return this.idempotencyKeyRepository.complete(key, status, contentType != null ? contentType.toString() : null,
+                        new String(body, StandardCharsets.UTF_8))
+                .onErrorResume(e -> {
+                    LOG.warn("Unable to store the response of idempotency key {}, retries are rejected until it expires", key, e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> release(String key) {
+        return this.idempotencyKeyRepository.release(key)
+                .onErrorResume(e -> {
+                    LOG.warn("Unable to release idempotency key {}, retries are rejected until it expires", key, e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, IdempotencyKeyRow row, String requestHash) {
+        if (!row.requestHash().equals(requestHash)) {
+            return writeError(exchange, HttpStatus.UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY_HEADER + " has already been used for a different request");
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(row.status()));
+        if (row.contentType() != null) {
+            response.getHeaders().setContentType(MediaType.parseMediaType(row.contentType()));
+        }
+        response.getHeaders().set(REPLAYED_HEADER, "true");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(row.bodyBytes())));
+    }
+
+    private Mono<Void> writeError(ServerWebExchange exchange, HttpStatus status, String errorMessage) {
+        ServerHttpResponse response = exchange.getResponse();
+        byte[] body;
+        try {
+            body = this.objectMapper.writeValueAsBytes(ExceptionResponse.builder()
+                    .errorMessage(errorMessage)
+                    .requestedURI(exchange.getRequest().getPath().value())
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * SHA-256 of method, path and query string, as IdempotencyFilter computes it.
+     */
+    private static String requestHash(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String requestLine = request.getMethod().name() + ' ' + request.getPath().value() + (query != null ? '?' + query : "");
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(requestLine.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.security.reactive.handler;
+
+import com.example.security.constant.AccountConstants;
+import com.example.security.exception.BadRequestException;
+import com.example.security.model.Account;
+import com.example.security.model.DeleteAccount;
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.service.ReactiveAccountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Handlers of /api/account, taking the same parameters as AccountManagementController.
+ */
+@Component
+@Profile(ReactiveAccountApplication.PROFILE)
+public class AccountHandler {
+
+    @Autowired
+    ReactiveAccountService accountService;
+
+    public Mono<ServerResponse> getAccounts(ServerRequest request) {
+        Long after;
+        int limit;
+        try {
+            after = RequestParams.longParam(request, "after");
+            limit = RequestParams.intParam(request, "limit", 100);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        boolean includeTransactions = Boolean.parseBoolean(request.queryParam("includeTransactions").orElse("false"));
+        return this.accountService.getAccounts(after, limit, includeTransactions)
+                .flatMap(page -> ServerResponse.ok().bodyValue(page));
+    }
+
+    public Mono<ServerResponse> createAccount(ServerRequest request) {
+        return request.bodyToMono(Account.class)
+                .flatMap(this.accountService::createAccount)
+                .flatMap(account -> ServerResponse.ok().bodyValue(account));
+    }
+
+    public Mono<ServerResponse> getAccount(ServerRequest request) {
+        return this.accountService.getAccountInformation(request.pathVariable("accountNumber"))
+                .flatMap(account -> ServerResponse.ok().bodyValue(account));
+    }
+
+    public Mono<ServerResponse> updateAccountBranch(ServerRequest request) {
+        return this.accountService.updateAccountBranch(RequestParams.param(request, "accountNumber"),
+                        RequestParams.param(request, "newBranch"))
+                .flatMap(account -> ServerResponse.ok().bodyValue(account));
+    }
+
+    public Mono<ServerResponse> deleteAccount(ServerRequest request) {
+        return this.accountService.deleteAccount(RequestParams.param(request, "accountNumber"))
+                .flatMap(accNo -> ServerResponse.ok().bodyValue(DeleteAccount.builder()
+                        .timestamp(LocalDateTime.now())
+                        .accountNumber(accNo)
+                        .status(AccountConstants.DELETED.getMessage())
+                        .build()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.security.reactive.handler;
+
+import com.example.security.exception.BadRequestException;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads query parameters of functional endpoints, type errors are reported as BadRequestException.
+ */
+final class RequestParams {
+
+    private RequestParams() {
+    }
+
+    /**
+     * @return String - value of the parameter, null if it is absent
+     */
+    static String param(ServerRequest request, String name) {
+        return request.queryParam(name).orElse(null);
+    }
+
+    static Long longParam(ServerRequest request, String name) throws BadRequestException {
+        String value = param(request, name);
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid value of '" + name + "': " + value);
+        }
+    }
+
+    static int intParam(ServerRequest request, String name, int defaultValue) throws BadRequestException {
+        String value = param(request, name);
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid value of '" + name + "': " + value);
+        }
+    }
+
+    /**
+     * @return LocalDateTime - ISO date-time value of the parameter, null if it is absent
+     */
+    static LocalDateTime dateTimeParam(ServerRequest request, String name) throws BadRequestException {
+        String value = param(request, name);
+        try {
+            return value != null ? LocalDateTime.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid value of '" + name + "': " + value);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.security.reactive.handler;
+
+import com.example.security.exception.BadRequestException;
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.service.ReactiveAccountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Handlers of /api/transaction, taking the same parameters as AccountTransactionsController.
+ */
+@Component
+@Profile(ReactiveAccountApplication.PROFILE)
+public class TransactionHandler {
+
+    @Autowired
+    ReactiveAccountService accountService;
+
+    public Mono<ServerResponse> deposit(ServerRequest request) {
+        return this.accountService.deposit(RequestParams.param(request, "accountNumber"), RequestParams.param(request, "amount"))
+                .flatMap(account -> ServerResponse.ok().bodyValue(account));
+    }
+
+    public Mono<ServerResponse> withdraw(ServerRequest request) {
+        return this.accountService.withdraw(RequestParams.param(request, "accountNumber"), RequestParams.param(request, "amount"))
+                .flatMap(account -> ServerResponse.ok().bodyValue(account));
+    }
+
+    public Mono<ServerResponse> history(ServerRequest request) {
+        LocalDateTime from;
+        LocalDateTime to;
+        int limit;
+        try {
+            from = RequestParams.dateTimeParam(request, "from");
+            to = RequestParams.dateTimeParam(request, "to");
+            limit = RequestParams.intParam(request, "limit", 100);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        return this.accountService.getTransactions(RequestParams.param(request, "accountNumber"), from, to,
+                        RequestParams.param(request, "type"), RequestParams.param(request, "pageToken"), limit)
+                .flatMap(page -> ServerResponse.ok().bodyValue(page));
+    }
+}
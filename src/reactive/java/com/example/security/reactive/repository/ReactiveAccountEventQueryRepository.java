@@ -0,0 +1,79 @@
+package com.example.security.reactive.repository;
+
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.entity.AccountEventRow;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC counterpart of AccountEventQueryRepository: only the filters which are set become part of the statement.
+ */
+@Repository
+@Profile(ReactiveAccountApplication.PROFILE)
+public class ReactiveAccountEventQueryRepository {
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    /**
+     * @param accNo     - Long - account number
+     * @param from      - LocalDateTime - inclusive lower bound of the event time, null for no bound
+     * @param to        - LocalDateTime - exclusive upper bound of the event time, null for no bound
+     * @param type      - String - event type, null for all types
+     * @param beforeSeq - Long - sequence number of the last event of the previous page, null for the first page
+     * @param limit     - int - maximum number of events
+     * @return Flux - events in sequence order, most recent first
+     */
+    public Flux<AccountEventRow> findPage(Long accNo, LocalDateTime from, LocalDateTime to, String type,
+                                          Long beforeSeq, int limit) {
+        StringBuilder sql = new StringBuilder("select id, acc_no, seq, type, ts, balance, transaction_amt, error"
+                + " from account_event where acc_no = :accNo");
+        if (from != null) {
+            sql.append(" and ts >= :from");
+        }
+        if (to != null) {
+            sql.append(" and ts < :to");
+        }
+        if (type != null) {
+            sql.append(" and type = :type");
+        }
+        if (beforeSeq != null) {
+            sql.append(" and seq < :beforeSeq");
+        }
+        sql.append(" order by seq desc limit :limit");
+        DatabaseClient.GenericExecuteSpec statement = this.databaseClient.sql(sql.toString())
+                .bind("accNo", accNo)
+                .bind("limit", limit);
+        if (from != null) {
+            statement = statement.bind("from", from);
+        }
+        if (to != null) {
+            statement = statement.bind("to", to);
+        }
+        if (type != null) {
+            statement = statement.bind("type", type);
+        }
+        if (beforeSeq != null) {
+            statement = statement.bind("beforeSeq", beforeSeq);
+        }
+        return statement.map(ReactiveAccountEventQueryRepository::toRow).all();
+    }
+
+    private static AccountEventRow toRow(Readable row) {
+        return new AccountEventRow(
+                row.get("id", Long.class),
+                row.get("acc_no", Long.class),
+                row.get("seq", Long.class),
+                row.get("type", String.class),
+                row.get("ts", LocalDateTime.class),
+                row.get("balance", Long.class),
+                row.get("transaction_amt", Long.class),
+                row.get("error", String.class));
+    }
+}
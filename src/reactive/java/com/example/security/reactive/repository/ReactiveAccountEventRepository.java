@@ -0,0 +1,22 @@
+package com.example.security.reactive.repository;
+
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.entity.AccountEventRow;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+@Repository
+@Profile(ReactiveAccountApplication.PROFILE)
+public interface ReactiveAccountEventRepository extends ReactiveCrudRepository<AccountEventRow, Long> {
+
+    @Query("select * from account_event where acc_no = :accountNumber order by seq desc limit :limit")
+    Flux<AccountEventRow> findRecentByAccNo(Long accountNumber, int limit);
+
+    @Query("select * from account_event where acc_no in (:accountNumbers) order by acc_no, seq")
+    Flux<AccountEventRow> findByAccNoIn(Collection<Long> accountNumbers);
+}
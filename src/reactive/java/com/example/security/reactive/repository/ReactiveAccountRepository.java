@@ -0,0 +1,124 @@
+package com.example.security.reactive.repository;
+
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.entity.AccountRow;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC counterpart of AccountRepository. Every write is a single statement (data-modifying CTE), so that none of
+ * them needs a transaction spanning several round trips.
+ */
+@Repository
+@Profile(ReactiveAccountApplication.PROFILE)
+public interface ReactiveAccountRepository extends ReactiveCrudRepository<AccountRow, Long> {
+
+    String COLUMNS = "id, acc_no, holder_name, start_date, branch, balance, last_event_seq, last_event_ts, created_by,"
+            + " modified_by, created_date, modified_date";
+
+    @Query("select " + COLUMNS + " from account where acc_no = :accountNumber")
+    Mono<AccountRow> findByAccNo(Long accountNumber);
+
+    Mono<Boolean> existsByAccNo(Long accountNumber);
+
+    /**
+     * Keyset page: the accounts following 'after' in account number order, see AccountRepository.findPageAfter.
+     */
+    @Query("select " + COLUMNS + " from account where acc_no > :after order by acc_no limit :limit")
+    Flux<AccountRow> findPageAfter(Long after, int limit);
+
+    /**
+     * First number of the next block of account numbers, see ReactiveAccountNumberAllocator.
+     *
+     * @return Mono - first account number of the block
+     */
+    @Query("select nextval('account_no_seq')")
+    Mono<Long> nextAccountNumberBlock();
+
+    /**
+     * @return Mono - increment of account_no_seq, empty if there is no such sequence
+     */
+    @Query("select increment_by from pg_sequences where schemaname = current_schema() and sequencename = 'account_no_seq'")
+    Mono<Long> accountNumberBlockIncrement();
+
+    /**
+     * Inserts the account together with its create event.
+     * The id is a plain nextval() of account_id_seq: Hibernate's pooled optimizer uses the ids just below the values it
+     * draws, which never include a value drawn by another caller.
+     *
+     * @param accountNumber - Long - account number
+     * @param holderName    - String - account holder name
+     * @param branch        - String - branch name
+     * @param eventType     - String - type of the create event
+     * @param ts            - LocalDateTime - creation time
+     * @param createdBy     - String - service account
+     * @return Mono - sequence number of the create event
+     */
+    @Query("with created as ("
+            + " insert into account (id, acc_no, holder_name, start_date, branch, balance, last_event_seq, last_event_ts,"
+            + " created_by, created_date)"
+            + " values (nextval('account_id_seq'), :accountNumber, :holderName, :ts, :branch, 0, 1, :ts, :createdBy, :ts)"
+            + " returning acc_no, last_event_seq)"
+            + " insert into account_event (acc_no, seq, type, ts, balance)"
+            + " select acc_no, last_event_seq, :eventType, :ts, 0 from created"
+            + " returning seq")
+    Mono<Long> create(Long accountNumber, String holderName, String branch, String eventType, LocalDateTime ts, String createdBy);
+
+    /**
+     * Changes the branch, advances the last-event snapshot and appends the ledger event in a single statement.
+     *
+     * @param accountNumber - Long - account number
+     * @param branch        - String - new branch name
+     * @param eventType     - String - type of the ledger event
+     * @param ts            - LocalDateTime - timestamp of the ledger event
+     * @param modifiedBy    - String - service account
+     * @return Mono - sequence number of the new event, empty if the account does not exist
+     */
+    @Query("with updated as ("
+            + " update account set branch = :branch, last_event_seq = last_event_seq + 1, last_event_ts = :ts,"
+            + " modified_by = :modifiedBy, modified_date = :ts"
+            + " where acc_no = :accountNumber"
+            + " returning acc_no, last_event_seq)"
+            + " insert into account_event (acc_no, seq, type, ts)"
+            + " select acc_no, last_event_seq, :eventType, :ts from updated"
+            + " returning seq")
+    Mono<Long> updateBranch(Long accountNumber, String branch, String eventType, LocalDateTime ts, String modifiedBy);
+
+    /**
+     * Deletes the account and its ledger in a single statement.
+     *
+     * @param accountNumber - Long - account number
+     * @return Mono - account number, empty if the account does not exist
+     */
+    @Query("with events as (delete from account_event where acc_no = :accountNumber)"
+            + " delete from account where acc_no = :accountNumber"
+            + " returning acc_no")
+    Mono<Long> deleteByAccNo(Long accountNumber);
+
+    /**
+     * Adds 'amount' (negative for a withdrawal) to the balance, advances the last-event snapshot and appends the ledger
+     * event in a single statement, see AccountRepository.addToBalance.
+     *
+     * @param accountNumber - Long - account number
+     * @param amount        - Long - signed amount added to the balance
+     * @param eventType     - String - type of the ledger event
+     * @param ts            - LocalDateTime - timestamp of the ledger event
+     * @param modifiedBy    - String - service account
+     * @return Mono - new balance, empty if the account does not exist or the balance would become negative
+     */
+    @Query("with updated as ("
+            + " update account set balance = coalesce(balance, 0) + :amount, last_event_seq = last_event_seq + 1,"
+            + " last_event_ts = :ts, modified_by = :modifiedBy, modified_date = :ts"
+            + " where acc_no = :accountNumber and coalesce(balance, 0) + :amount >= 0"
+            + " returning acc_no, balance, last_event_seq)"
+            + " insert into account_event (acc_no, seq, type, ts, balance, transaction_amt)"
+            + " select acc_no, last_event_seq, :eventType, :ts, balance, abs(:amount) from updated"
+            + " returning balance")
+    Mono<Long> addToBalance(Long accountNumber, Long amount, String eventType, LocalDateTime ts, String modifiedBy);
+}
@@ -0,0 +1,82 @@
+package com.example.security.reactive.repository;
+
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.entity.IdempotencyKeyRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC counterpart of IdempotencyKeyRepository, on the idempotency_key table shared with the servlet application,
+ * which also purges the expired keys.
+ */
+@Repository
+@Profile(ReactiveAccountApplication.PROFILE)
+public class ReactiveIdempotencyKeyRepository {
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    /**
+     * Claims the key for a request about to run; a key whose replay window has passed is taken over.
+     *
+     * @param key         - String - scoped idempotency key
+     * @param requestHash - String - SHA-256 of the request
+     * @param expiresAt   - LocalDateTime - end of the replay window
+     * @param now         - LocalDateTime - current time
+     * @return Mono - true if the key has been claimed, false if another request holds it
+     */
+    public Mono<Boolean> claim(String key, String requestHash, LocalDateTime expiresAt, LocalDateTime now) {
+        return this.databaseClient.sql("insert into idempotency_key (idem_key, request_hash, state, expires_at)"
+                        + " values (:key, :requestHash, 'PENDING', :expiresAt)"
+                        + " on conflict (idem_key) do update set request_hash = excluded.request_hash, state = 'PENDING',"
+                        + " status = null, content_type = null, body = null, expires_at = excluded.expires_at"
+                        + " where idempotency_key.expires_at < :now")
+                .bind("key", key)
+                .bind("requestHash", requestHash)
+                .bind("expiresAt", expiresAt)
+                .bind("now", now)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows == 1);
+    }
+
+    /**
+     * @param key - String - scoped idempotency key
+     * @return Mono - claim or stored response of the key, empty if there is none
+     */
+    public Mono<IdempotencyKeyRow> findByKey(String key) {
+        return this.databaseClient.sql("select request_hash, state, status, content_type, body from idempotency_key"
+                        + " where idem_key = :key")
+                .bind("key", key)
+                .map(row -> new IdempotencyKeyRow(row.get("request_hash", String.class), row.get("state", String.class),
+                        row.get("status", Integer.class), row.get("content_type", String.class), row.get("body", String.class)))
+                .one();
+    }
+
+    /**
+     * Stores the response on the claimed key.
+     */
+    public Mono<Void> complete(String key, int status, String contentType, String body) {
+        DatabaseClient.GenericExecuteSpec spec = this.databaseClient.sql("update idempotency_key set state = 'COMPLETED',"
+                        + " status = :status, content_type = :contentType, body = :body where idem_key = :key and state = 'PENDING'")
+                .bind("key", key)
+                .bind("status", status)
+                .bind("body", body);
+        return (contentType != null ? spec.bind("contentType", contentType) : spec.bindNull("contentType", String.class))
+                .then();
+    }
+
+    /**
+     * Gives up the claim of a request which ended without a response to store, so that it can be retried.
+     */
+    public Mono<Void> release(String key) {
+        return this.databaseClient.sql("delete from idempotency_key where idem_key = :key and state = 'PENDING'")
+                .bind("key", key)
+                .then();
+    }
+}
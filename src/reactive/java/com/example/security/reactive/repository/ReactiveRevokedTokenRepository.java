@@ -0,0 +1,53 @@
+package com.example.security.reactive.repository;
+
+import com.example.security.reactive.ReactiveAccountApplication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the revocation list (revoked_token) maintained by the servlet application.
+ */
+@Repository
+@Profile(ReactiveAccountApplication.PROFILE)
+public class ReactiveRevokedTokenRepository {
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    /**
+     * @param jti    - String - token id
+     * @param family - String - token family id, may be null
+     * @return Mono - true if the token or its family has been revoked
+     */
+    public Mono<Boolean> isRevoked(String jti, String family) {
+        return this.databaseClient.sql("select exists (select 1 from revoked_token where jti in (:jti, :family))")
+                .bind("jti", jti)
+                .bind("family", family != null ? family : jti)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    /**
+     * @return Flux - ids of all revoked tokens which have not expired yet
+     */
+    public Flux<String> findUnexpiredJtis() {
+        return this.databaseClient.sql("select jti from revoked_token where expires_at > now()")
+                .map(row -> row.get(0, String.class))
+                .all();
+    }
+
+    /**
+     * @param seconds - double - length of the window before now
+     * @return Flux - ids of the tokens revoked within the window
+     */
+    public Flux<String> findJtiRevokedWithin(double seconds) {
+        return this.databaseClient.sql("select jti from revoked_token where revoked_at > now() - :seconds * interval '1 second'")
+                .bind("seconds", seconds)
+                .map(row -> row.get(0, String.class))
+                .all();
+    }
+}
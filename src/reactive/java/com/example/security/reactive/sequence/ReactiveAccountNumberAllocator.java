@@ -0,0 +1,72 @@
+package com.example.security.reactive.sequence;
+
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.repository.ReactiveAccountRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of AccountNumberAllocator, handing out account numbers from blocks of account_no_seq.
+ * The monitor is only held to take a number, never across the database call: callers finding the block exhausted
+ * each reserve a new block, the first one to complete replaces the exhausted block and the others take the first
+ * number of theirs and leave the rest unused.
+ */
+@Component
+@Profile(ReactiveAccountApplication.PROFILE)
+public class ReactiveAccountNumberAllocator {
+
+    @Autowired
+    ReactiveAccountRepository accountRepository;
+
+    @Value("${account.number.block-size:50}")
+    private int blockSize;
+
+    /**
+     * Next unused number of the current block, guarded by this
+     */
+    private long next;
+
+    /**
+     * First number after the current block, guarded by this
+     */
+    private long limit;
+
+    /**
+     * Fails the startup if the block size differs from the increment of account_no_seq, see AccountNumberAllocator.
+     */
+    @PostConstruct
+    public void checkBlockSize() {
+        Long increment = this.accountRepository.accountNumberBlockIncrement().block();
+        if (increment == null || increment != this.blockSize) {
+            throw new IllegalStateException(String.format(
+                    "account_no_seq increments by %s but 'account.number.block-size' is %d", increment, this.blockSize));
+        }
+    }
+
+    /**
+     * @return Mono - unique account number
+     */
+    public Mono<Long> next() {
+        Long accountNumber = take();
+        if (accountNumber != null) {
+            return Mono.just(accountNumber);
+        }
+        return this.accountRepository.nextAccountNumberBlock().map(this::install);
+    }
+
+    private synchronized Long take() {
+        return this.next < this.limit ? this.next++ : null;
+    }
+
+    private synchronized Long install(Long first) {
+        if (this.next >= this.limit) {
+            this.next = first + 1;
+            this.limit = first + this.blockSize;
+        }
+        return first;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.security.reactive.service;
+
+import com.example.security.builder.AccountTransactionEventBuilder;
+import com.example.security.constant.AccountConstants;
+import com.example.security.exception.BadRequestException;
+import com.example.security.exception.InsufficientAccountBalanceException;
+import com.example.security.exception.ResourceNotFoundException;
+import com.example.security.model.Account;
+import com.example.security.model.AccountPage;
+import com.example.security.model.Transaction;
+import com.example.security.model.TransactionPage;
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.entity.AccountEventRow;
+import com.example.security.reactive.entity.AccountRow;
+import com.example.security.reactive.repository.ReactiveAccountEventQueryRepository;
+import com.example.security.reactive.repository.ReactiveAccountEventRepository;
+import com.example.security.reactive.repository.ReactiveAccountRepository;
+import com.example.security.reactive.sequence.ReactiveAccountNumberAllocator;
+import com.example.security.service.AccountRules;
+import io.micrometer.common.util.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of AccountServiceImpl. Inputs are checked by the same AccountRules, so that both variants answer
+ * a request with the same result or error; every write is a single statement, see ReactiveAccountRepository.
+ * Errors are signalled with the exceptions of the servlet variant and mapped to responses by AccountRouter.
+ */
+@Service
+@Profile(ReactiveAccountApplication.PROFILE)
+public class ReactiveAccountService {
+
+    @Autowired
+    ReactiveAccountRepository accountRepository;
+
+    @Autowired
+    ReactiveAccountEventRepository accountEventRepository;
+
+    @Autowired
+    ReactiveAccountEventQueryRepository accountEventQueryRepository;
+
+    @Autowired
+    ReactiveAccountNumberAllocator accountNumberAllocator;
+
+    @Value("${SERVICE_ACCOUNT}")
+    private String serviceAccount;
+
+    @Value("${account.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${account.recent-transactions:20}")
+    private int recentTransactions;
+
+    public Mono<Account> getAccountInformation(String accountNumber) {
+        Long accNo;
+        try {
+            accNo = AccountRules.accountNumber(accountNumber);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        return loadAccount(accNo);
+    }
+
+    public Mono<TransactionPage> getTransactions(String accountNumber, LocalDateTime from, LocalDateTime to, String type,
+                                                 String pageToken, int limit) {
+        Long accNo;
+        Long beforeSeq;
+        try {
+            accNo = AccountRules.accountNumber(accountNumber);
+            AccountRules.requirePageSize(limit, this.maxPageSize);
+            beforeSeq = AccountRules.beforeSeq(pageToken);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        return this.accountRepository.existsByAccNo(accNo)
+                .flatMap(exists -> exists
+                        ? this.accountEventQueryRepository.findPage(accNo, from, to, StringUtils.isBlank(type) ? null : type,
+                        beforeSeq, limit).collectList()
+                        : Mono.<List<AccountEventRow>>error(accountNotFound()))
+                .map(events -> {
+                    String nextPageToken = null;
+                    if (events.size() == limit) {
+                        nextPageToken = AccountRules.pageToken(events.get(events.size() - 1).seq());
+                    }
+                    return new TransactionPage(events.stream().map(AccountEventRow::toTransaction).toList(), nextPageToken);
+                });
+    }
+
+    /**
+     * The account and its create event are returned as inserted, without reading them back.
+     */
+    public Mono<Account> createAccount(Account account) {
+        String missingInputs = AccountRules.missingInputs(account);
+        if (!missingInputs.isEmpty()) {
+            return Mono.error(new BadRequestException(AccountConstants.PROVIDE_VALID_INPUTS.getMessage() + missingInputs));
+        }
+        Transaction createEvent = AccountTransactionEventBuilder.createAccountSuccessfulEvent();
+        LocalDateTime ts = LocalDateTime.parse(createEvent.getTs());
+        return this.accountNumberAllocator.next()
+                .flatMap(accNo -> this.accountRepository.create(accNo, account.getAccountHolderName(),
+                                account.getAccountBranch(), createEvent.getType(), ts, this.serviceAccount)
+                        .thenReturn(new AccountRow(null, accNo, account.getAccountHolderName(), ts,
+                                account.getAccountBranch(), 0L, 1L, ts, this.serviceAccount, null, ts, null)))
+                .map(created -> created.toAccount(new ArrayList<>(List.of(createEvent))));
+    }
+
+    public Mono<Account> updateAccountBranch(String accountNumber, String newBranch) {
+        try {
+            AccountRules.requireAccountAndBranch(accountNumber, newBranch);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        Long accNo = Long.parseLong(accountNumber);
+        Transaction updateEvent = AccountTransactionEventBuilder.updateAccountSuccessfulEvent();
+        return this.accountRepository.updateBranch(accNo, newBranch, updateEvent.getType(),
+                        LocalDateTime.parse(updateEvent.getTs()), this.serviceAccount)
+                .switchIfEmpty(Mono.error(accountNotFound()))
+                .then(loadAccount(accNo));
+    }
+
+    /**
+     * @param accountNumber - String - account number
+     * @return Mono - number of the deleted account
+     */
+    public Mono<Long> deleteAccount(String accountNumber) {
+        Long accNo;
+        try {
+            accNo = AccountRules.accountNumber(accountNumber);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        return this.accountRepository.deleteByAccNo(accNo)
+                .switchIfEmpty(Mono.error(accountNotFound()));
+    }
+
+    public Mono<Account> deposit(String accountNumber, String depositAmount) {
+        try {
+            AccountRules.requireAccountAndAmount(accountNumber, depositAmount);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        Long accNo = Long.parseLong(accountNumber);
+        int deposit = Integer.parseInt(depositAmount);
+        return this.accountRepository.addToBalance(accNo, (long) deposit, AccountConstants.EVENT_DEPOSIT.getMessage(),
+                        LocalDateTime.now(), this.serviceAccount)
+                .switchIfEmpty(Mono.error(accountNotFound()))
+                .then(loadAccount(accNo));
+    }
+
+    /**
+     * An empty result of the conditional update means either no account or an insufficient balance, the existence
+     * check tells them apart.
+     */
+    public Mono<Account> withdraw(String accountNumber, String withdrawalAmount) {
+        try {
+            AccountRules.requireAccountAndAmount(accountNumber, withdrawalAmount);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        Long accNo = Long.parseLong(accountNumber);
+        int withdraw = Integer.parseInt(withdrawalAmount);
+        return this.accountRepository.addToBalance(accNo, -(long) withdraw, AccountConstants.EVENT_WITHDRAWAL.getMessage(),
+                        LocalDateTime.now(), this.serviceAccount)
+                .switchIfEmpty(this.accountRepository.existsByAccNo(accNo)
+                        .flatMap(exists -> Mono.<Long>error(exists
+                                ? new InsufficientAccountBalanceException(AccountConstants.INSUFFICIENT_ACCOUNT_BALANCE.getMessage())
+                                : accountNotFound())))
+                .then(loadAccount(accNo));
+    }
+
+    public Mono<AccountPage> getAccounts(Long after, int limit, boolean includeTransactions) {
+        try {
+            AccountRules.requirePageSize(limit, this.maxPageSize);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        return this.accountRepository.findPageAfter(after != null ? after : Long.MIN_VALUE, limit)
+                .collectList()
+                .flatMap(accounts -> {
+                    if (!includeTransactions || accounts.isEmpty()) {
+                        return Mono.just(toPage(accounts, null, limit));
+                    }
+                    return this.accountEventRepository.findByAccNoIn(accounts.stream().map(AccountRow::accNo).toList())
+                            .collectMultimap(AccountEventRow::accNo, AccountEventRow::toTransaction)
+                            .map(transactionsByAccNo -> toPage(accounts, transactionsByAccNo, limit));
+                });
+    }
+
+    /**
+     * @param accounts            - List - accounts of the page
+     * @param transactionsByAccNo - Map - events of the accounts, null if they are not returned
+     * @param limit               - int - requested page size
+     * @return AccountPage - page of accounts
+     */
+    private static AccountPage toPage(List<AccountRow> accounts, Map<Long, Collection<Transaction>> transactionsByAccNo,
+                                      int limit) {
+        List<Account> page = new ArrayList<>(accounts.size());
+        for (AccountRow account : accounts) {
+            List<Transaction> transactions = null;
+            if (transactionsByAccNo != null) {
+                transactions = new ArrayList<>(transactionsByAccNo.getOrDefault(account.accNo(), List.of()));
+            }
+            page.add(account.toAccount(transactions));
+        }
+        Long nextAfter = accounts.size() == limit ? accounts.get(accounts.size() - 1).accNo() : null;
+        return new AccountPage(page, nextAfter);
+    }
+
+    /**
+     * @param accNo - Long - account number
+     * @return Mono - account with its most recent 'account.recent-transactions' events in chronological order
+     */
+    private Mono<Account> loadAccount(Long accNo) {
+        return this.accountRepository.findByAccNo(accNo)
+                .switchIfEmpty(Mono.error(accountNotFound()))
+                .flatMap(account -> this.accountEventRepository.findRecentByAccNo(accNo, this.recentTransactions)
+                        .map(AccountEventRow::toTransaction)
+                        .collectList()
+                        .map(events -> {
+                            List<Transaction> transactions = new ArrayList<>(events.size());
+                            for (int i = events.size() - 1; i >= 0; i--) {
+                                transactions.add(events.get(i));
+                            }
+                            return account.toAccount(transactions);
+                        }));
+    }
+
+    private static ResourceNotFoundException accountNotFound() {
+        return new ResourceNotFoundException(AccountConstants.ACCOUNT_NOT_FOUND.getMessage());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.security.reactive.service;
+
+import com.example.security.cache.RevocationBloomFilter;
+import com.example.security.reactive.ReactiveAccountApplication;
+import com.example.security.reactive.repository.ReactiveRevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of TokenRevocationServiceImpl for the revocation list maintained by the servlet application:
+ * lookups go through the same in-memory RevocationBloomFilter first and only query revoked_token when the token id or
+ * its family id might be in it. The filter is loaded on startup, revocations are polled into it every
+ * 'jwt.revocation.sync-interval-ms' and it is rebuilt every 'jwt.revocation.rebuild-interval-ms' (the servlet
+ * application purges the expired revocations). Until the filter has been loaded every lookup goes to the table.
+ * Loads and syncs run on the scheduling thread, one at a time, and block it until they are done.
+ */
+@Service
+@Profile(ReactiveAccountApplication.PROFILE)
+public class ReactiveTokenRevocationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveTokenRevocationService.class);
+
+    private static final int SYNC_OVERLAP_SECONDS = 30;
+
+    @Autowired
+    ReactiveRevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${jwt.revocation.false-positive-probability:0.001}")
+    private double falsePositiveProbability;
+
+    /**
+     * Filter answering lookups, null until loaded.
+     */
+    private volatile RevocationBloomFilter filter;
+
+    /**
+     * Start (epoch ms) of the last sync or load, 0 before
+     */
+    private volatile long lastSyncMillis;
+
+    /**
+     * @param jti    - String - token id
+     * @param family - String - token family id, may be null
+     * @return Mono - true if the token or its family has been revoked
+     */
+    public Mono<Boolean> isRevoked(String jti, String family) {
+        RevocationBloomFilter current = this.filter;
+        if (current != null && !current.mightContain(jti) && (family == null || !current.mightContain(family))) {
+            return Mono.just(false);
+        }
+        return this.revokedTokenRepository.isRevoked(jti, family);
+    }
+
+    /**
+     * Adds the revocations since the last sync, plus SYNC_OVERLAP_SECONDS for clock skew and late commits, to the
+     * filter.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.sync-interval-ms:5000}",
+            fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void syncRecent() {
+        RevocationBloomFilter current = this.filter;
+        if (current == null) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        double windowSeconds = (started - this.lastSyncMillis) / 1000.0 + SYNC_OVERLAP_SECONDS;
+        this.revokedTokenRepository.findJtiRevokedWithin(windowSeconds)
+                .doOnNext(current::put)
+                .then()
+                .block();
+        this.lastSyncMillis = started;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Loads all unexpired revocations into a new filter and swaps it in; revocations made during the load are added
+     * by the next sync.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        RevocationBloomFilter next = new RevocationBloomFilter(this.expectedRevocations, this.falsePositiveProbability);
+        long started = System.currentTimeMillis();
+        Long loaded = this.revokedTokenRepository.findUnexpiredJtis()
+                .doOnNext(next::put)
+                .count()
+                .block();
+        if (this.lastSyncMillis == 0L) {
+            this.lastSyncMillis = started;
+        }
+        this.filter = next;
+        LOG.info("Loaded {} token revocations into the revocation filter", loaded);
+    }
+}
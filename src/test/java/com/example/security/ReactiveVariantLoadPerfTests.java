@@ -0,0 +1,91 @@
+package com.example.security;
+
+import com.example.security.model.Account;
+import com.example.security.perf.HttpLoad;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Side by side load of GET /api/account/{accountNumber} on the servlet application and on the reactive variant, at
+ * 100 and 1000 concurrent clients. Both applications have to be running on the same database: the servlet application
+ * ('perf.servlet-url', default http://localhost:8081/my-application) with '--rate-limit.enabled=false
+ * --account.cache.enabled=false', so that both read every request from the database, and the reactive variant
+ * ('perf.reactive-url', default http://localhost:8082/my-application, 'mvn -Preactive spring-boot:run').
+ * The test takes a token of user1@example.com from the servlet application and creates the account it reads.
+ */
+@Tag("perf")
+class ReactiveVariantLoadPerfTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveVariantLoadPerfTests.class);
+
+    private static final String SERVLET_URL = System.getProperty("perf.servlet-url", "http://localhost:8081/my-application");
+
+    private static final String REACTIVE_URL = System.getProperty("perf.reactive-url", "http://localhost:8082/my-application");
+
+    private static final int[] CLIENTS = {100, 1000};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void accountReadsOnServletAndReactive() throws Exception {
+        String accessToken = send(HttpRequest.newBuilder(URI.create(SERVLET_URL + "/api/auth/token"))
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder()
+                        .encodeToString("user1@example.com:user1password".getBytes(StandardCharsets.UTF_8)))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build()).get("accessToken").asText();
+        String accountNumber = send(HttpRequest.newBuilder(URI.create(SERVLET_URL + "/api/account"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(this.objectMapper.writeValueAsString(Account.builder()
+                        .accountHolderName("Reactive Load Test")
+                        .accountBranch("Test")
+                        .build())))
+                .build()).get("accountNumber").asText();
+        try {
+            for (int clients : CLIENTS) {
+                HttpLoad.Result servlet = load("servlet", SERVLET_URL, accountNumber, accessToken, clients);
+                HttpLoad.Result reactive = load("reactive", REACTIVE_URL, accountNumber, accessToken, clients);
+                LOG.info("{} clients: reactive {}x the requests/s of servlet, p99 {} ms against {} ms", clients,
+                        String.format("%.2f", reactive.requestsPerSecond() / servlet.requestsPerSecond()),
+                        String.format("%.1f", reactive.p99Millis()), String.format("%.1f", servlet.p99Millis()));
+                assertEquals(0, servlet.errors(), servlet.name());
+                assertEquals(0, reactive.errors(), reactive.name());
+            }
+        } finally {
+            this.httpClient.send(HttpRequest.newBuilder(URI.create(SERVLET_URL + "/api/account?accountNumber=" + accountNumber))
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                    .DELETE()
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private HttpLoad.Result load(String variant, String url, String accountNumber, String accessToken, int clients) throws InterruptedException {
+        return HttpLoad.run(variant, this.httpClient, clients, HttpRequest.newBuilder(URI.create(url + "/api/account/" + accountNumber))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .GET()
+                .build());
+    }
+
+    private JsonNode send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), request.uri() + ": " + response.body());
+        return this.objectMapper.readTree(response.body());
+    }
+}
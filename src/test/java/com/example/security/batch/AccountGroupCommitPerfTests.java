@@ -0,0 +1,86 @@
+package com.example.security.batch;
+
+import com.example.security.SpringbootOauth2JwtAndBasicAuthSecurityApplication;
+import com.example.security.model.Account;
+import com.example.security.perf.PerfRunner;
+import com.example.security.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deposits from 64 threads spread over 16 accounts, with the group commit off (one transaction per request) and on.
+ * With the group commit on, commits per second are taken from the 'account.group-commit.commits' and
+ * 'account.group-commit.requests' counters of AccountGroupCommitter. The throughput ratio is logged, not asserted,
+ * since it depends on the machine and the database; the test asserts that the group commit batches requests, i.e.
+ * more requests than commits.
+ * Needs the database of application.properties.
+ */
+@Tag("perf")
+class AccountGroupCommitPerfTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountGroupCommitPerfTests.class);
+
+    private static final int THREADS = 64;
+
+    private static final int ACCOUNTS = 16;
+
+    @Test
+    void depositsWithAndWithoutGroupCommit() throws Exception {
+        double requestsPerSecondWithout = deposits(false);
+        double requestsPerSecondWith = deposits(true);
+        LOG.info("group commit: {}x the requests/s", String.format("%.2f", requestsPerSecondWith / requestsPerSecondWithout));
+    }
+
+    /**
+     * @return double - requests per second
+     */
+    private double deposits(boolean groupCommit) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringbootOauth2JwtAndBasicAuthSecurityApplication.class)
+                .properties("server.port=0", "account.group-commit.enabled=" + groupCommit)
+                .run()) {
+            AccountService accountService = context.getBean(AccountService.class);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            List<String> accountNumbers = new ArrayList<>(ACCOUNTS);
+            try {
+                for (int i = 0; i < ACCOUNTS; i++) {
+                    accountNumbers.add(String.valueOf(accountService.createAccount(Account.builder()
+                            .accountHolderName("Group Commit Perf Test")
+                            .accountBranch("Test")
+                            .build()).getAccountNumber()));
+                }
+                double commitsBefore = meterRegistry.counter("account.group-commit.commits").count();
+                double requestsBefore = meterRegistry.counter("account.group-commit.requests").count();
+                PerfRunner.Result result = PerfRunner.measure("deposit, group commit " + (groupCommit ? "on" : "off"),
+                        THREADS, 1, thread -> accountService.deposit(accountNumbers.get(thread % ACCOUNTS), "1"));
+                if (groupCommit) {
+                    // the counters include the warm-up period
+                    double commits = meterRegistry.counter("account.group-commit.commits").count() - commitsBefore;
+                    double requests = meterRegistry.counter("account.group-commit.requests").count() - requestsBefore;
+                    LOG.info("group commit on: {} requests/s, {} commits/s, {} requests per commit",
+                            String.format("%.0f", result.operationsPerSecond()),
+                            String.format("%.0f", result.operationsPerSecond() * commits / requests),
+                            String.format("%.1f", requests / commits));
+                    assertTrue(requests / commits > 1, "group commit should commit several requests per transaction");
+                } else {
+                    LOG.info("group commit off: {} requests/s, as many commits/s",
+                            String.format("%.0f", result.operationsPerSecond()));
+                }
+                return result.operationsPerSecond();
+            } finally {
+                for (String accountNumber : accountNumbers) {
+                    accountService.deleteAccount(accountNumber);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.security.cache;
+
+import com.example.security.SpringbootOauth2JwtAndBasicAuthSecurityApplication;
+import com.example.security.model.Account;
+import com.example.security.perf.PerfRunner;
+import com.example.security.repository.AccountRepository;
+import com.example.security.service.AccountService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Latency of a 95% read (getAccountInformation) / 5% write (deposit) mix over 100 accounts from 16 threads, with the
+ * account cache on and off ('account.cache.enabled').
+ * The p99 of the mix falls on the writes, which the cache does not speed up; the p50 is a read. The latencies are
+ * logged, not asserted, since they depend on the machine and the database; the test asserts that the balances read
+ * after the mix match the account table.
+ * Needs the database of application.properties.
+ */
+@Tag("perf")
+class AccountCachePerfTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountCachePerfTests.class);
+
+    private static final int THREADS = 16;
+
+    private static final int ACCOUNTS = 100;
+
+    private static final int WRITE_EVERY = 20;
+
+    @Test
+    void readMostlyMixWithAndWithoutCache() throws Exception {
+        PerfRunner.Latency withoutCache = readMostlyMix(false);
+        PerfRunner.Latency withCache = readMostlyMix(true);
+        LOG.info("account cache: p50 {} -> {} ms, p99 {} -> {} ms, {}x the operations/s",
+                String.format("%.3f", withoutCache.p50Millis()), String.format("%.3f", withCache.p50Millis()),
+                String.format("%.3f", withoutCache.p99Millis()), String.format("%.3f", withCache.p99Millis()),
+                String.format("%.2f", withCache.result().operationsPerSecond() / withoutCache.result().operationsPerSecond()));
+    }
+
+    private PerfRunner.Latency readMostlyMix(boolean cache) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringbootOauth2JwtAndBasicAuthSecurityApplication.class)
+                .properties("server.port=0", "account.cache.enabled=" + cache)
+                .run()) {
+            AccountService accountService = context.getBean(AccountService.class);
+            AccountRepository accountRepository = context.getBean(AccountRepository.class);
+            List<String> accountNumbers = new ArrayList<>(ACCOUNTS);
+            try {
+                for (int i = 0; i < ACCOUNTS; i++) {
+                    accountNumbers.add(String.valueOf(accountService.createAccount(Account.builder()
+                            .accountHolderName("Cache Perf Test")
+                            .accountBranch("Test")
+                            .build()).getAccountNumber()));
+                }
+                int[] operations = new int[THREADS];
+                PerfRunner.Latency latency = PerfRunner.measureLatency("95% reads / 5% writes, cache " + (cache ? "on" : "off"), THREADS,
+                        thread -> {
+                            int operation = operations[thread]++;
+                            String accountNumber = accountNumbers.get((operation * THREADS + thread) % ACCOUNTS);
+                            return operation % WRITE_EVERY == 0
+                                    ? accountService.deposit(accountNumber, "1")
+                                    : accountService.getAccountInformation(accountNumber);
+                        });
+                for (String accountNumber : accountNumbers) {
+                    assertEquals(accountRepository.findByAccNo(Long.parseLong(accountNumber)).getBalance(),
+                            accountService.getAccountInformation(accountNumber).getAccountBalance());
+                }
+                return latency;
+            } finally {
+                for (String accountNumber : accountNumbers) {
+                    accountService.deleteAccount(accountNumber);
+                }
+            }
+        }
+    }
+}
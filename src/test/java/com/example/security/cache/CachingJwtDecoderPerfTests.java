@@ -0,0 +1,100 @@
+package com.example.security.cache;
+
+import com.example.security.perf.PerfRunner;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Decode throughput of NimbusJwtDecoder (RS256) with and without CachingJwtDecoder, for clients presenting the same
+ * tokens repeatedly. The speedup of the cache is logged, not asserted, since it depends on the machine; the test only
+ * asserts that cached decodes return the claims of the verified token.
+ */
+@Tag("perf")
+class CachingJwtDecoderPerfTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingJwtDecoderPerfTests.class);
+
+    private static final int TOKENS = 1000;
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    @Test
+    void cachedDecodeAgainstVerifyingEveryToken() throws Exception {
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("perf").generate();
+        NimbusJwtDecoder nimbusJwtDecoder = NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+        JwtDecoder cachingJwtDecoder = new CachingJwtDecoder(nimbusJwtDecoder, 10_000L,
+                jwt -> OAuth2TokenValidatorResult.success());
+        String[] tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = sign(rsaKey, "user" + i);
+        }
+
+        PerfRunner.Result nimbus = PerfRunner.measure("NimbusJwtDecoder.decode", THREADS, 100,
+                new TokenCycle(tokens, nimbusJwtDecoder));
+        PerfRunner.Result cached = PerfRunner.measure("CachingJwtDecoder.decode", THREADS, 100,
+                new TokenCycle(tokens, cachingJwtDecoder));
+
+        LOG.info("CachingJwtDecoder.decode {}x the throughput of NimbusJwtDecoder.decode",
+                String.format("%.2f", cached.operationsPerSecond() / nimbus.operationsPerSecond()));
+
+        for (String token : tokens) {
+            assertEquals(nimbusJwtDecoder.decode(token).getClaims(), cachingJwtDecoder.decode(token).getClaims());
+        }
+    }
+
+    private static String sign(RSAKey rsaKey, String subject) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .subject(subject)
+                        .jwtID(UUID.randomUUID().toString())
+                        .issueTime(new Date())
+                        .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                        .build());
+        jwt.sign(new RSASSASigner(rsaKey));
+        return jwt.serialize();
+    }
+
+    /**
+     * Every thread decodes the tokens round robin, starting at a different offset.
+     */
+    private static final class TokenCycle implements PerfRunner.Operation {
+
+        private final String[] tokens;
+
+        private final JwtDecoder jwtDecoder;
+
+        private final int[] positions = new int[THREADS * 16];
+
+        private TokenCycle(String[] tokens, JwtDecoder jwtDecoder) {
+            this.tokens = tokens;
+            this.jwtDecoder = jwtDecoder;
+        }
+
+        @Override
+        public Object run(int thread) {
+            int slot = thread * 16;
+            int position = this.positions[slot];
+            this.positions[slot] = position + 1 == this.tokens.length ? 0 : position + 1;
+            return this.jwtDecoder.decode(this.tokens[(position + thread * 97) % this.tokens.length]);
+        }
+    }
+}
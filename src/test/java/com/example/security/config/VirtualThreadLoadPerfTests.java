@@ -0,0 +1,98 @@
+package com.example.security.config;
+
+import com.example.security.SpringbootOauth2JwtAndBasicAuthSecurityApplication;
+import com.example.security.model.Account;
+import com.example.security.perf.HttpLoad;
+import com.example.security.repository.UserRepository;
+import com.example.security.service.AccountService;
+import com.example.security.service.TokenService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Account reads (GET /api/account/{accountNumber}) at 1k, 5k and 10k concurrent clients, served by Tomcat on platform
+ * threads and on virtual threads ('virtual-threads.enabled'). Needs a JDK 21 (the java21 profile is then active) and is
+ * skipped on older JVMs. The account cache and the rate limit are off, so every request blocks on JDBC.
+ * Needs the database of application.properties.
+ */
+@Tag("perf")
+class VirtualThreadLoadPerfTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadLoadPerfTests.class);
+
+    private static final int[] CLIENTS = {1000, 5000, 10000};
+
+    private static final String USERNAME = "user1@example.com";
+
+    @Test
+    void accountReadsOnPlatformAndVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need a JDK 21, running on " + Runtime.version());
+        List<HttpLoad.Result> results = new ArrayList<>(load(false));
+        results.addAll(load(true));
+        for (int i = 0; i < CLIENTS.length; i++) {
+            HttpLoad.Result platform = results.get(i);
+            HttpLoad.Result virtual = results.get(CLIENTS.length + i);
+            LOG.info("{} clients: virtual threads {}x the requests/s of platform threads, p99 {} ms against {} ms",
+                    CLIENTS[i], String.format("%.2f", virtual.requestsPerSecond() / platform.requestsPerSecond()),
+                    String.format("%.1f", virtual.p99Millis()), String.format("%.1f", platform.p99Millis()));
+        }
+        for (HttpLoad.Result result : results) {
+            assertEquals(0, result.errors(), result.name());
+        }
+    }
+
+    private List<HttpLoad.Result> load(boolean virtualThreads) throws Exception {
+        String threads = virtualThreads ? "virtual threads" : "platform threads";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringbootOauth2JwtAndBasicAuthSecurityApplication.class)
+                .properties("server.port=0",
+                        "virtual-threads.enabled=" + virtualThreads,
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=10000",
+                        "account.cache.enabled=false",
+                        "rate-limit.enabled=false")
+                .run()) {
+            AccountService accountService = context.getBean(AccountService.class);
+            Account account = accountService.createAccount(Account.builder()
+                    .accountHolderName("Load Test")
+                    .accountBranch("Test")
+                    .build());
+            String accountNumber = String.valueOf(account.getAccountNumber());
+            try {
+                String accessToken = context.getBean(TokenService.class)
+                        .issueTokens(context.getBean(UserRepository.class).findByUsername(USERNAME))
+                        .accessToken();
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                String contextPath = context.getBean(ServerProperties.class).getServlet().getContextPath();
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + contextPath
+                                + "/api/account/" + accountNumber))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .GET()
+                        .build();
+                HttpClient httpClient = HttpClient.newHttpClient();
+                List<HttpLoad.Result> results = new ArrayList<>();
+                for (int clients : CLIENTS) {
+                    results.add(HttpLoad.run(threads, httpClient, clients, request));
+                }
+                return results;
+            } finally {
+                accountService.deleteAccount(accountNumber);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.security.constant;
+
+import com.example.security.config.JwtKeyLoader;
+import com.example.security.perf.PerfRunner;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.crypto.factories.DefaultJWSSignerFactory;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sign and verify throughput of every SigningAlgorithm with the sample key pairs shipped in src/main/resources, using
+ * the Nimbus signers and verifiers the key ring builds (SigningKeyServiceImpl.toSigningKey). The signing throughput
+ * relative to RS256 is logged, not asserted, since it depends on the machine and the JCA providers; the test only
+ * asserts that every algorithm's signatures verify.
+ */
+@Tag("perf")
+class SigningAlgorithmPerfTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SigningAlgorithmPerfTests.class);
+
+    private static final Map<SigningAlgorithm, String[]> KEY_FILES = Map.of(
+            SigningAlgorithm.RS256, new String[]{"key.pem", "public.pem"},
+            SigningAlgorithm.ES256, new String[]{"ec-key.pem", "ec-public.pem"},
+            SigningAlgorithm.EdDSA, new String[]{"ed25519-key.pem", "ed25519-public.pem"});
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    @Test
+    void signAndVerifyThroughputPerAlgorithm() throws Exception {
+        Payload payload = new Payload(new JWTClaimsSet.Builder()
+                .issuer("self")
+                .subject("bank.admin@example.com")
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(900)))
+                .claim("scope", "ROLE_ADMIN ROLE_USER")
+                .build()
+                .toJSONObject());
+        Map<SigningAlgorithm, PerfRunner.Result> signResults = new EnumMap<>(SigningAlgorithm.class);
+        for (SigningAlgorithm algorithm : SigningAlgorithm.values()) {
+            String[] keyFiles = KEY_FILES.get(algorithm);
+            JWK jwk = JwtKeyLoader.load(algorithm, new ClassPathResource(keyFiles[0]), new ClassPathResource(keyFiles[1]));
+            JWSHeader header = new JWSHeader.Builder(algorithm.getJwsAlgorithm()).keyID("perf").build();
+            JWSSigner signer = new DefaultJWSSignerFactory().createJWSSigner(jwk, algorithm.getJwsAlgorithm());
+            JWSVerifier verifier = verifier(jwk);
+            JWSObject signed = new JWSObject(header, payload);
+            signed.sign(signer);
+            String token = signed.serialize();
+            assertTrue(JWSObject.parse(token).verify(verifier),
+                    "Signature of the " + algorithm.getName() + " token does not verify");
+
+            signResults.put(algorithm, PerfRunner.measure(algorithm.getName() + " sign", THREADS, 10, thread -> {
+                JWSObject jwsObject = new JWSObject(header, payload);
+                jwsObject.sign(signer);
+                return jwsObject.serialize();
+            }));
+            PerfRunner.measure(algorithm.getName() + " verify", THREADS, 10, thread -> {
+                JWSObject jwsObject = JWSObject.parse(token);
+                if (!jwsObject.verify(verifier)) {
+                    throw new IllegalStateException("Signature of the " + algorithm.getName() + " token does not verify");
+                }
+                return jwsObject;
+            });
+        }
+
+        double rs256 = signResults.get(SigningAlgorithm.RS256).operationsPerSecond();
+        signResults.forEach((algorithm, result) -> LOG.info("{} signs {}x the throughput of RS256", algorithm.getName(),
+                String.format("%.2f", result.operationsPerSecond() / rs256)));
+    }
+
+    private static JWSVerifier verifier(JWK jwk) throws Exception {
+        if (jwk instanceof RSAKey rsaKey) {
+            return new RSASSAVerifier(rsaKey.toPublicJWK());
+        }
+        if (jwk instanceof ECKey ecKey) {
+            return new ECDSAVerifier(ecKey.toPublicJWK());
+        }
+        return new Ed25519Verifier(((OctetKeyPair) jwk).toPublicJWK());
+    }
+}
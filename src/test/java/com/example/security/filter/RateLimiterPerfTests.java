@@ -0,0 +1,56 @@
+package com.example.security.filter;
+
+import com.example.security.perf.PerfRunner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost of RateLimiter.tryAcquire with the 'api' group of application.properties (200 requests per second): many
+ * principals staying within their limit (the tokens are taken), and a single principal far over it (rejected).
+ * Both must stay below one microsecond per request.
+ */
+@Tag("perf")
+class RateLimiterPerfTests {
+
+    private static final int PRINCIPALS = 100_000;
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final double MAX_NANOS_PER_REQUEST = 1000.0;
+
+    @Test
+    void tryAcquireTakesLessThanAMicrosecond() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.api.paths", "/api/")
+                .withProperty("rate-limit.api.capacity", "200")
+                .withProperty("rate-limit.api.period-seconds", "1");
+        RateLimiter rateLimiter = new RateLimiter(true, List.of("api"), environment, new SimpleMeterRegistry());
+        RateLimiter.Group group = rateLimiter.group("/api/account/100000");
+        String[] principals = new String[PRINCIPALS];
+        for (int i = 0; i < PRINCIPALS; i++) {
+            principals[i] = "user" + i + "@example.com";
+        }
+
+        int[] positions = new int[THREADS * 16];
+        PerfRunner.Result allowed = PerfRunner.measure("RateLimiter.tryAcquire, " + PRINCIPALS + " principals", THREADS,
+                1000, thread -> {
+                    int slot = thread * 16;
+                    int position = positions[slot];
+                    positions[slot] = position + 1 == PRINCIPALS ? 0 : position + 1;
+                    return rateLimiter.tryAcquire(group, principals[(position + thread * 7919) % PRINCIPALS]);
+                });
+        PerfRunner.Result rejected = PerfRunner.measure("RateLimiter.tryAcquire, 1 principal over the limit", THREADS,
+                1000, thread -> rateLimiter.tryAcquire(group, principals[0]));
+
+        assertTrue(allowed.nanosPerOperation() < MAX_NANOS_PER_REQUEST,
+                "tryAcquire took " + allowed.nanosPerOperation() + " ns");
+        assertTrue(rejected.nanosPerOperation() < MAX_NANOS_PER_REQUEST,
+                "tryAcquire took " + rejected.nanosPerOperation() + " ns when rejecting");
+    }
+}
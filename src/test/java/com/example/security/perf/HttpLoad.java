@@ -0,0 +1,119 @@
+package com.example.security.perf;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load of the perf tests: every client sends its next request as soon as the response to the previous
+ * one has arrived, through the warm-up and the measurement period of PerfRunner. Requests are sent asynchronously by
+ * one HttpClient, so thousands of clients do not need thousands of threads (but one connection each: the open file
+ * limit of the test JVM and of the server has to allow for it).
+ */
+public final class HttpLoad {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpLoad.class);
+
+    private HttpLoad() {
+    }
+
+    /**
+     * @param name       - String - name of the measurement, logged with the result
+     * @param httpClient - HttpClient - client sending the requests
+     * @param clients    - int - number of concurrent clients
+     * @param request    - HttpRequest - request sent by every client
+     * @return Result - requests answered during the measurement period, errors and latency percentiles
+     * @throws InterruptedException - if interrupted while waiting for the clients
+     */
+    public static Result run(String name, HttpClient httpClient, int clients, HttpRequest request) throws InterruptedException {
+        Load load = new Load(httpClient, request, clients);
+        for (int i = 0; i < clients; i++) {
+            load.send();
+        }
+        Thread.sleep(PerfRunner.WARMUP.toMillis());
+        load.measuring = true;
+        long begin = System.nanoTime();
+        Thread.sleep(PerfRunner.MEASUREMENT.toMillis());
+        load.measuring = false;
+        long elapsedNanos = System.nanoTime() - begin;
+        load.stopped = true;
+        if (!load.done.await(1, TimeUnit.MINUTES)) {
+            LOG.warn("{}: {} client(s) still waiting for a response", name, load.done.getCount());
+        }
+        HistogramSnapshot snapshot = load.latency.takeSnapshot();
+        Result result = new Result(name, clients, load.requests.sum(), load.errors.sum(),
+                load.requests.sum() * 1e9 / elapsedNanos, PerfRunner.percentile(snapshot, 0.5),
+                PerfRunner.percentile(snapshot, 0.99));
+        LOG.info("{}: {} client(s), {} requests ({} errors), {} requests/s, p50 {} ms, p99 {} ms", name, clients,
+                result.requests(), result.errors(), String.format("%.0f", result.requestsPerSecond()),
+                String.format("%.1f", result.p50Millis()), String.format("%.1f", result.p99Millis()));
+        return result;
+    }
+
+    /**
+     * @param name              - String - name of the measurement
+     * @param clients           - int - number of concurrent clients
+     * @param requests          - long - responses received during the measurement period
+     * @param errors            - long - failed requests and responses other than 2xx among them
+     * @param requestsPerSecond - double - responses per second
+     * @param p50Millis         - double - median latency
+     * @param p99Millis         - double - 99th percentile latency
+     */
+    public record Result(String name, int clients, long requests, long errors, double requestsPerSecond,
+                         double p50Millis, double p99Millis) {
+    }
+
+    private static final class Load {
+
+        private final HttpClient httpClient;
+
+        private final HttpRequest request;
+
+        private final CountDownLatch done;
+
+        private final LongAdder requests = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final Timer latency = Timer.builder("perf.http.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(new SimpleMeterRegistry());
+
+        private volatile boolean measuring;
+
+        private volatile boolean stopped;
+
+        private Load(HttpClient httpClient, HttpRequest request, int clients) {
+            this.httpClient = httpClient;
+            this.request = request;
+            this.done = new CountDownLatch(clients);
+        }
+
+        private void send() {
+            long start = System.nanoTime();
+            this.httpClient.sendAsync(this.request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (this.measuring) {
+                    this.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    this.requests.increment();
+                    if (error != null || response.statusCode() / 100 != 2) {
+                        this.errors.increment();
+                    }
+                }
+                if (this.stopped) {
+                    this.done.countDown();
+                } else {
+                    send();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.security.perf;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measurement loop of the perf tests (@Tag("perf"), run with 'mvn test -Pperf'): every thread runs the operation for
+ * the warm-up period, then all threads run it for the measurement period and the operations are counted.
+ * The periods are 'perf.warmup-seconds' (default 5) and 'perf.measurement-seconds' (default 10).
+ * The clock is read once per batch of operations so that sub-microsecond operations are not dominated by it.
+ * Allocations are counted with the per-thread allocation counter of the JVM (com.sun.management.ThreadMXBean).
+ * Latency percentiles are taken from a Micrometer timer recording every operation of the measurement period.
+ */
+public final class PerfRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PerfRunner.class);
+
+    static final Duration WARMUP = Duration.ofSeconds(Long.getLong("perf.warmup-seconds", 5L));
+
+    static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("perf.measurement-seconds", 10L));
+
+    /**
+     * Results of the operations, published so that the JIT cannot drop them
+     */
+    private static volatile Object sink;
+
+    private PerfRunner() {
+    }
+
+    /**
+     * @param name      - String - name of the measurement, logged with the result
+     * @param threads   - int - number of threads running the operation
+     * @param batchSize - int - operations between two reads of the clock
+     * @param operation - Operation - operation to measure, called with the index of the thread
+     * @return Result - operations and elapsed time of the measurement period
+     * @throws Exception - if the operation failed
+     */
+    public static Result measure(String name, int threads, int batchSize, Operation operation) throws Exception {
+        return measure(name, threads, batchSize, operation, null);
+    }
+
+    /**
+     * Like measure, timing every operation of the measurement period.
+     *
+     * @param name      - String - name of the measurement, logged with the result
+     * @param threads   - int - number of threads running the operation
+     * @param operation - Operation - operation to measure, called with the index of the thread
+     * @return Latency - throughput and latency percentiles
+     * @throws Exception - if the operation failed
+     */
+    public static Latency measureLatency(String name, int threads, Operation operation) throws Exception {
+        Timer timer = Timer.builder("perf.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(new SimpleMeterRegistry());
+        Result result = measure(name, threads, 1, operation, timer);
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Latency latency = new Latency(result, percentile(snapshot, 0.5), percentile(snapshot, 0.99));
+        LOG.info("{}: p50 {} ms, p99 {} ms", name, String.format("%.3f", latency.p50Millis()),
+                String.format("%.3f", latency.p99Millis()));
+        return latency;
+    }
+
+    /**
+     * @param snapshot   - HistogramSnapshot - snapshot of a timer publishing the percentile
+     * @param percentile - double - percentile, e.g. 0.99
+     * @return double - value of the percentile in milliseconds, NaN if the timer does not publish it
+     */
+    static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static Result measure(String name, int threads, int batchSize, Operation operation, Timer latency) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                futures.add(executor.submit((Callable<long[]>) () -> {
+                    run(operation, thread, batchSize, WARMUP, null);
+                    start.await();
+                    return run(operation, thread, batchSize, MEASUREMENT, latency);
+                }));
+            }
+            long operations = 0L;
+            long elapsedNanos = 0L;
+            for (Future<long[]> future : futures) {
+                long[] measured = future.get();
+                operations += measured[0];
+                elapsedNanos = Math.max(elapsedNanos, measured[1]);
+            }
+            Result result = new Result(name, threads, operations, elapsedNanos);
+            LOG.info("{}: {} thread(s), {} ops in {} ms, {} ns/op per thread, {} ops/s", name, threads, operations,
+                    elapsedNanos / 1_000_000L, String.format("%.1f", result.nanosPerOperation()),
+                    String.format("%.0f", result.operationsPerSecond()));
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the operation on the calling thread for the warm-up period, then counts the bytes allocated by the given
+     * number of operations.
+     *
+     * @param name       - String - name of the measurement, logged with the result
+     * @param operations - int - number of measured operations
+     * @param operation  - Operation - operation to measure, called with thread index 0
+     * @return double - bytes allocated per operation
+     * @throws Exception - if the operation failed
+     */
+    public static double allocatedBytesPerOperation(String name, int operations, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        run(operation, 0, 1, WARMUP, null);
+        Object last = null;
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < operations; i++) {
+            last = operation.run(0);
+        }
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+        sink = last;
+        double bytesPerOperation = (double) allocated / operations;
+        LOG.info("{}: {} bytes/op allocated ({} ops)", name, String.format("%.0f", bytesPerOperation), operations);
+        return bytesPerOperation;
+    }
+
+    /**
+     * @return long[] - operations run and nanoseconds elapsed
+     */
+    private static long[] run(Operation operation, int thread, int batchSize, Duration duration, Timer latency) throws Exception {
+        long begin = System.nanoTime();
+        long deadline = begin + duration.toNanos();
+        long operations = 0L;
+        Object last = null;
+        long now;
+        do {
+            for (int i = 0; i < batchSize; i++) {
+                if (latency == null) {
+                    last = operation.run(thread);
+                } else {
+                    long start = System.nanoTime();
+                    last = operation.run(thread);
+                    latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+            operations += batchSize;
+            now = System.nanoTime();
+        } while (now < deadline);
+        sink = last;
+        return new long[]{operations, now - begin};
+    }
+
+    @FunctionalInterface
+    public interface Operation {
+
+        /**
+         * @param thread - int - index of the calling thread
+         * @return Object - result of the operation
+         * @throws Exception - if the operation failed
+         */
+        Object run(int thread) throws Exception;
+    }
+
+    /**
+     * @param name         - String - name of the measurement
+     * @param threads      - int - number of threads
+     * @param operations   - long - operations of all threads
+     * @param elapsedNanos - long - length of the measurement period
+     */
+    public record Result(String name, int threads, long operations, long elapsedNanos) {
+
+        public double operationsPerSecond() {
+            return this.operations * 1e9 / this.elapsedNanos;
+        }
+
+        /**
+         * @return double - average time of one operation on one thread
+         */
+        public double nanosPerOperation() {
+            return (double) this.elapsedNanos * this.threads / this.operations;
+        }
+    }
+
+    /**
+     * @param result    - Result - throughput of the measurement
+     * @param p50Millis - double - median latency of one operation
+     * @param p99Millis - double - 99th percentile latency of one operation
+     */
+    public record Latency(Result result, double p50Millis, double p99Millis) {
+    }
+}
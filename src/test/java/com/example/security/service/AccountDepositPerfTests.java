@@ -0,0 +1,107 @@
+package com.example.security.service;
+
+import com.example.security.constant.AccountConstants;
+import com.example.security.entity.AccountEntity;
+import com.example.security.entity.AccountEventEntity;
+import com.example.security.model.Account;
+import com.example.security.model.Transaction;
+import com.example.security.perf.PerfRunner;
+import com.example.security.repository.AccountEventRepository;
+import com.example.security.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Deposits of 1 into one hot account from 64 threads: AccountService.deposit (one atomic statement) against the former
+ * read-modify-write path (read the account, add in Java, save it and append the event in one transaction), which
+ * loses updates under contention. The lost updates of the former path are logged with its throughput.
+ * Needs the database of application.properties.
+ */
+@Tag("perf")
+@SpringBootTest
+class AccountDepositPerfTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountDepositPerfTests.class);
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AccountEventRepository accountEventRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private String accountNumber;
+
+    @BeforeEach
+    void createAccount() throws Exception {
+        Account account = this.accountService.createAccount(Account.builder()
+                .accountHolderName("Deposit Perf Test")
+                .accountBranch("Test")
+                .build());
+        this.accountNumber = String.valueOf(account.getAccountNumber());
+    }
+
+    @AfterEach
+    void deleteAccount() throws Exception {
+        this.accountService.deleteAccount(this.accountNumber);
+    }
+
+    @Test
+    void atomicDepositsAgainstReadModifyWrite() throws Exception {
+        AtomicLong atomicDeposits = new AtomicLong();
+        PerfRunner.Result atomic = PerfRunner.measure("AccountService.deposit", THREADS, 1, thread -> {
+            Account account = this.accountService.deposit(this.accountNumber, "1");
+            atomicDeposits.incrementAndGet();
+            return account;
+        });
+        long balance = this.accountService.getAccountInformation(this.accountNumber).getAccountBalance();
+        assertEquals(atomicDeposits.get(), balance);
+
+        Long accNo = Long.parseLong(this.accountNumber);
+        TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+        AtomicLong readModifyWriteDeposits = new AtomicLong();
+        PerfRunner.Result readModifyWrite = PerfRunner.measure("read-modify-write deposit", THREADS, 1, thread -> {
+            AccountEntity updated = transaction.execute(status -> {
+                AccountEntity account = this.accountRepository.findByAccNo(accNo);
+                long newBalance = account.getBalance() + 1;
+                account.setBalance(newBalance);
+                AccountEntity saved = this.accountRepository.save(account);
+                Long seq = this.accountRepository.nextEventSeq(accNo, LocalDateTime.now());
+                this.accountEventRepository.save(AccountEventEntity.of(accNo, seq, Transaction.builder()
+                        .type(AccountConstants.EVENT_DEPOSIT.getMessage())
+                        .ts(LocalDateTime.now().toString())
+                        .transactionAmt(1L)
+                        .balance(newBalance)
+                        .build()));
+                return saved;
+            });
+            readModifyWriteDeposits.incrementAndGet();
+            return updated;
+        });
+        long lost = readModifyWriteDeposits.get()
+                - (this.accountService.getAccountInformation(this.accountNumber).getAccountBalance() - balance);
+        LOG.info("{} of {} read-modify-write deposits lost, atomic deposits {}x the throughput", lost,
+                readModifyWriteDeposits.get(),
+                String.format("%.2f", atomic.operationsPerSecond() / readModifyWrite.operationsPerSecond()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.security.service;
+
+import com.example.security.exception.InsufficientAccountBalanceException;
+import com.example.security.model.Account;
+import com.example.security.repository.AccountEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers a single account from many threads; with atomic balance updates no update may get lost and the account may
+ * never be overdrawn.
+ */
+@Tag("stress")
+@SpringBootTest
+class AccountServiceConcurrencyTests {
+
+    private static final int THREADS = 64;
+
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountEventRepository accountEventRepository;
+
+    private String accountNumber;
+
+    @BeforeEach
+    void createAccount() throws Exception {
+        Account account = this.accountService.createAccount(Account.builder()
+                .accountHolderName("Concurrency Test")
+                .accountBranch("Test")
+                .build());
+        this.accountNumber = String.valueOf(account.getAccountNumber());
+    }
+
+    @AfterEach
+    void deleteAccount() throws Exception {
+        this.accountService.deleteAccount(this.accountNumber);
+    }
+
+    @Test
+    void concurrentDepositsAndWithdrawalsKeepTheExactBalance() throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> {
+                for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                    this.accountService.deposit(this.accountNumber, "2");
+                    this.accountService.withdraw(this.accountNumber, "1");
+                }
+                return null;
+            });
+        }
+        runConcurrently(tasks);
+
+        Account account = this.accountService.getAccountInformation(this.accountNumber);
+        assertEquals((long) THREADS * OPERATIONS_PER_THREAD, account.getAccountBalance());
+        assertEquals(1 + 2 * THREADS * OPERATIONS_PER_THREAD, this.accountEventRepository.countByAccNo(account.getAccountNumber()));
+    }
+
+    @Test
+    void concurrentWithdrawalsNeverOverdraw() throws Exception {
+        this.accountService.deposit(this.accountNumber, "100");
+        AtomicInteger rejected = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> {
+                try {
+                    this.accountService.withdraw(this.accountNumber, "10");
+                } catch (InsufficientAccountBalanceException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        runConcurrently(tasks);
+
+        assertEquals(0L, this.accountService.getAccountInformation(this.accountNumber).getAccountBalance());
+        assertEquals(THREADS - 10, rejected.get());
+    }
+
+    private static void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.security.service;
+
+import com.example.security.exception.InsufficientAccountBalanceException;
+import com.example.security.model.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Random transfers among many accounts from many threads; whatever the interleaving, no transfer may deadlock and the
+ * total amount of money must stay the same.
+ */
+@Tag("stress")
+@SpringBootTest
+class AccountTransferStressTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountTransferStressTests.class);
+
+    private static final int ACCOUNTS = 1000;
+
+    private static final long INITIAL_BALANCE = 1000L;
+
+    private static final int THREADS = 32;
+
+    private static final int TRANSFERS_PER_THREAD = 200;
+
+    @Autowired
+    AccountService accountService;
+
+    private final List<String> accountNumbers = new ArrayList<>();
+
+    @BeforeEach
+    void createAccounts() throws Exception {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = this.accountService.createAccount(Account.builder()
+                    .accountHolderName("Transfer Test " + i)
+                    .accountBranch("Test")
+                    .build());
+            String accountNumber = String.valueOf(account.getAccountNumber());
+            this.accountService.deposit(accountNumber, String.valueOf(INITIAL_BALANCE));
+            this.accountNumbers.add(accountNumber);
+        }
+    }
+
+    @AfterEach
+    void deleteAccounts() throws Exception {
+        for (String accountNumber : this.accountNumbers) {
+            this.accountService.deleteAccount(accountNumber);
+        }
+    }
+
+    @Test
+    void randomTransfersConserveTotalBalance() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int j = 0; j < TRANSFERS_PER_THREAD; j++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    try {
+                        this.accountService.transfer(this.accountNumbers.get(from), this.accountNumbers.get(to),
+                                String.valueOf(1 + random.nextInt(200)));
+                    } catch (InsufficientAccountBalanceException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        long start = System.nanoTime();
+        runConcurrently(tasks);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        LOG.info("{} transfers ({} rejected) in {} s: {} transfers/s", THREADS * TRANSFERS_PER_THREAD, rejected.get(),
+                String.format("%.2f", seconds), String.format("%.0f", THREADS * TRANSFERS_PER_THREAD / seconds));
+
+        long total = 0L;
+        for (String accountNumber : this.accountNumbers) {
+            total += this.accountService.getAccountInformation(accountNumber).getAccountBalance();
+        }
+        assertEquals(ACCOUNTS * INITIAL_BALANCE, total);
+    }
+
+    private static void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.security.service;
+
+import com.example.security.config.JwtKeyLoader;
+import com.example.security.config.JwtRevocationValidator;
+import com.example.security.constant.Role;
+import com.example.security.constant.SigningAlgorithm;
+import com.example.security.entity.RoleSet;
+import com.example.security.entity.UserEntity;
+import com.example.security.perf.PerfRunner;
+import com.example.security.service.impl.TokenServiceImpl;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.factories.DefaultJWSSignerFactory;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocation (bytes per token) and throughput of TokenServiceImpl against the former token endpoint, which built a
+ * JwtClaimsSet with the joined authorities and signed it through NimbusJwtEncoder and its JWK selection.
+ * Both sign with the RS256 sample key; TokenServiceImpl.issueTokens mints an access and a refresh token per call.
+ */
+@Tag("perf")
+class TokenServicePerfTests {
+
+    private static final int OPERATIONS = 2000;
+
+    @Test
+    void mintingAllocatesLessPerTokenThanNimbusJwtEncoder() throws Exception {
+        JWK jwk = JwtKeyLoader.load(SigningAlgorithm.RS256, new ClassPathResource("key.pem"), new ClassPathResource("public.pem"));
+        SigningKeyService.SigningKey signingKey = new SigningKeyService.SigningKey("perf",
+                new JWSHeader.Builder(SigningAlgorithm.RS256.getJwsAlgorithm()).keyID("perf").build(),
+                new DefaultJWSSignerFactory().createJWSSigner(jwk, SigningAlgorithm.RS256.getJwsAlgorithm()), null);
+        TokenService tokenService = new TokenServiceImpl(new FixedSigningKeyService(signingKey),
+                new JwtRevocationValidator(), 900L, 86400L);
+        JwtEncoder jwtEncoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+        UserEntity user = UserEntity.builder()
+                .username("bank.admin@example.com")
+                .roles(RoleSet.of(Role.ADMIN, Role.USER))
+                .build();
+
+        double encoderBytes = PerfRunner.allocatedBytesPerOperation("NimbusJwtEncoder token", OPERATIONS,
+                thread -> encode(jwtEncoder, user));
+        double mintingBytes = PerfRunner.allocatedBytesPerOperation("TokenServiceImpl.issueTokens (2 tokens)", OPERATIONS,
+                thread -> tokenService.issueTokens(user)) / 2;
+        PerfRunner.measure("NimbusJwtEncoder token", 1, 10, thread -> encode(jwtEncoder, user));
+        PerfRunner.measure("TokenServiceImpl.issueTokens (2 tokens)", 1, 10, thread -> tokenService.issueTokens(user));
+
+        assertTrue(mintingBytes < encoderBytes, "minting should allocate less per token than NimbusJwtEncoder ("
+                + mintingBytes + " vs " + encoderBytes + " bytes)");
+    }
+
+    /**
+     * Token endpoint before TokenService (AuthController.getToken)
+     */
+    private static String encode(JwtEncoder jwtEncoder, UserEntity user) {
+        Instant now = Instant.now();
+        String scope = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(" "));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(36000L))
+                .subject(user.getUsername())
+                .claim("scope", scope)
+                .build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    private record FixedSigningKeyService(SigningKey signingKey) implements SigningKeyService {
+
+        @Override
+        public SigningKey activeKey() {
+            return this.signingKey;
+        }
+
+        @Override
+        public com.nimbusds.jose.JWSVerifier verifier(String kid) {
+            return null;
+        }
+
+        @Override
+        public Map<String, Object> jwks() {
+            return Map.of();
+        }
+    }
+}